@@ -3,6 +3,8 @@ package com.github.thesilentpro.inputs.api;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -15,11 +17,20 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
     private Instant createdAt;
     private Duration duration;
 
-    private BiConsumer<T, E> handler;
-    private BiConsumer<I,E> mismatchHandler;
-    private BiConsumer<I,E> expiredHandler;
+    // Kept as set, Consumer or BiConsumer, so the single-argument overloads need no adapter
+    private Object handler;
+    private Object mismatchHandler;
+    private Object expiredHandler;
+    private Runnable cancelledHandler;
+    private Object throttledHandler;
+    private RateLimit rateLimit;
+    private int retries;
+    private Object exhaustedHandler;
 
     private boolean ignoreExpired;
+    private boolean silent;
+    private Executor executor;
+    private String tag;
 
     public BaseInput(Class<T> requiredInputType) {
         this.requiredInputType = requiredInputType;
@@ -35,7 +46,7 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
 
     @Override
     public Input<T,E,I> then(Consumer<T> handler) {
-        this.handler = (t, e) -> handler.accept(t);
+        this.handler = handler;
         return this;
     }
 
@@ -47,7 +58,7 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
 
     @Override
     public Input<T,E,I> mismatch(Consumer<I> handler) {
-        this.mismatchHandler = (i, e) -> handler.accept(i);
+        this.mismatchHandler = handler;
         return this;
     }
 
@@ -59,7 +70,7 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
 
     @Override
     public Input<T,E,I> expired(Consumer<I> handler) {
-        this.expiredHandler = (i, e) -> handler.accept(i);
+        this.expiredHandler = handler;
         return this;
     }
 
@@ -69,6 +80,51 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
         return this;
     }
 
+    @Override
+    public Input<T,E,I> cancelled(Runnable handler) {
+        this.cancelledHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> retries(int retries) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries must not be negative: " + retries);
+        }
+        this.retries = retries;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> exhausted(Consumer<I> handler) {
+        this.exhaustedHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> exhausted(BiConsumer<I,E> handler) {
+        this.exhaustedHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> throttled(Consumer<I> handler) {
+        this.throttledHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> throttled(BiConsumer<I,E> handler) {
+        this.throttledHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> rateLimit(RateLimit limit) {
+        this.rateLimit = limit;
+        return this;
+    }
+
     @Override
     public Input<T,E,I> timestamp(Instant timestamp) {
         this.createdAt = timestamp;
@@ -81,12 +137,45 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
         return this;
     }
 
+    @Override
+    public Input<T,E,I> silent() {
+        this.silent = true;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @Override
+    public Input<T,E,I> tag(String tag) {
+        this.tag = tag;
+        return this;
+    }
+
     @Override
     public Input<T, E, I> register(UUID id, InputRegistry<I, E> registry) {
         registry.register(id, this);
         return this;
     }
 
+    @Override
+    public CompiledInput<E,I> compile(CompletableFuture<? super T> future) {
+        return new CompiledInput<>(requiredInputType, new InputHandlers<>(getSuccessHandler(), mismatchHandler, expiredHandler, future, cancelledHandler, throttledHandler, exhaustedHandler), createdAt, ignoreExpired ? null : duration, executor, tag, silent, rateLimit, retries);
+    }
+
+    /**
+     * Gets the handler the compiled input passes parsed values to.
+     * Subclasses with specialized handlers override this to hand over their own.
+     *
+     * @return The success handler, as accepted by {@link InputHandlers}.
+     */
+    protected Object getSuccessHandler() {
+        return handler;
+    }
+
     // Getters
 
     @Override
@@ -101,17 +190,52 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
 
     @Override
     public BiConsumer<T,E> getInputHandler() {
-        return handler;
+        return asBiConsumer(handler);
     }
 
     @Override
     public BiConsumer<I,E> getMismatchHandler() {
-        return mismatchHandler;
+        return asBiConsumer(mismatchHandler);
     }
 
     @Override
     public BiConsumer<I,E> getExpiredHandler() {
-        return expiredHandler;
+        return asBiConsumer(expiredHandler);
+    }
+
+    @Override
+    public Runnable getCancelledHandler() {
+        return cancelledHandler;
+    }
+
+    @Override
+    public BiConsumer<I,E> getThrottledHandler() {
+        return asBiConsumer(throttledHandler);
+    }
+
+    @Override
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    @Override
+    public int getRetries() {
+        return retries;
+    }
+
+    @Override
+    public BiConsumer<I,E> getExhaustedHandler() {
+        return asBiConsumer(exhaustedHandler);
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String getTag() {
+        return tag;
     }
 
     @Override
@@ -133,4 +257,17 @@ public class BaseInput<T,E,I> implements Input<T,E,I> {
         return ignoreExpired;
     }
 
+    @Override
+    public boolean isSilent() {
+        return silent;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A,B> BiConsumer<A,B> asBiConsumer(Object handler) {
+        if (handler == null || handler instanceof BiConsumer<?,?>) {
+            return (BiConsumer<A,B>) handler;
+        }
+        return (a, b) -> ((Consumer<A>) handler).accept(a);
+    }
+
 }
\ No newline at end of file
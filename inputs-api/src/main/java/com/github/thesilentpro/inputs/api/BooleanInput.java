@@ -0,0 +1,29 @@
+package com.github.thesilentpro.inputs.api;
+
+/**
+ * An {@link Input} of {@code boolean} values whose handler receives the primitive value, so it is never boxed
+ * on its way from the parser to the handler.
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public interface BooleanInput<E,I> extends Input<Boolean,E,I> {
+
+    /**
+     * Sets a handler to be executed with the primitive value and the event when the expected input is successfully provided.
+     * It takes precedence over handlers set with {@link #then(java.util.function.BiConsumer)}.
+     *
+     * @param handler The handler that processes the input and the event.
+     * @return The updated input instance with the handler applied.
+     */
+    BooleanInput<E,I> thenBoolean(BooleanHandler<E> handler);
+
+    /**
+     * Gets the handler that processes the primitive input.
+     *
+     * @return The handler, or {@code null} if none has been set.
+     */
+    BooleanHandler<E> getBooleanHandler();
+
+}
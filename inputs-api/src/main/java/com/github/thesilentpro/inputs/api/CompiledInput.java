@@ -0,0 +1,155 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+
+/**
+ * The frozen form of an {@link Input}, created by {@link Input#compile()} when the input is registered.
+ * <p>
+ * It keeps only what processing needs: the required type, the handlers and a monotonic deadline in
+ * {@link System#nanoTime()} nanos, so checking for expiry does not allocate.
+ * </p>
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public final class CompiledInput<E,I> {
+
+    // Deadlines further out are clamped, so adding them to System#nanoTime() cannot overflow
+    private static final long MAX_REMAINING_NANOS = Long.MAX_VALUE >> 2;
+
+    private final Class<?> type;
+    private final InputHandlers<E,I> handlers;
+    private final long deadline;
+    private final boolean expires;
+    private final Executor executor;
+    private final String tag;
+    private final boolean silent;
+    private final RateLimit rateLimit;
+    private final int retries;
+
+    /**
+     * Creates a compiled input, see {@link Input#compile(java.util.concurrent.CompletableFuture)}.
+     *
+     * @param type The class type of the expected input.
+     * @param handlers The handlers of the input.
+     * @param timestamp The time the input was created.
+     * @param duration The duration the input remains active, or {@code null} if it never expires.
+     * @param executor The executor the handlers run on, or {@code null} to use the registry's default.
+     * @param tag The tag the input is registered under, or {@code null}.
+     * @param silent Whether the response is kept from being shown to anyone else.
+     * @param rateLimit The limit on how fast responses are processed, or {@code null} to use the registry's.
+     * @param retries The number of failed responses tolerated before the last attempt.
+     */
+    CompiledInput(@NotNull Class<?> type, @NotNull InputHandlers<E,I> handlers, @NotNull Instant timestamp, @Nullable Duration duration, @Nullable Executor executor, @Nullable String tag, boolean silent, @Nullable RateLimit rateLimit, int retries) {
+        this.type = type;
+        this.handlers = handlers;
+        this.expires = duration != null;
+        this.deadline = duration != null ? System.nanoTime() + remainingNanos(timestamp, duration) : 0;
+        this.executor = executor;
+        this.tag = tag;
+        this.silent = silent;
+        this.rateLimit = rateLimit;
+        this.retries = retries;
+    }
+
+    @NotNull
+    public Class<?> getType() {
+        return type;
+    }
+
+    @NotNull
+    public InputHandlers<E,I> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Gets the executor the handlers run on.
+     *
+     * @return The executor, or {@code null} if the registry's default is used.
+     */
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the tag the input is registered under.
+     *
+     * @return The tag, or {@code null} if the input is untagged.
+     */
+    @Nullable
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Checks if the response is kept from being shown to anyone else.
+     *
+     * @return {@code true} if the input is silent.
+     */
+    public boolean isSilent() {
+        return silent;
+    }
+
+    /**
+     * Gets the limit on how fast responses to this input are processed.
+     *
+     * @return The limit, or {@code null} if the registry's applies.
+     */
+    @Nullable
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Gets the number of failed responses tolerated before the last attempt.
+     * An input with retries stays registered in its place while responses fail to parse.
+     *
+     * @return The retries, {@code 0} if the input is consumed by the first mismatch.
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * Checks if the input has a deadline.
+     *
+     * @return {@code true} if the input expires.
+     */
+    public boolean expires() {
+        return expires;
+    }
+
+    /**
+     * Gets the deadline of the input.
+     *
+     * @return The {@link System#nanoTime()} after which the input has expired, meaningless if it never {@link #expires()}.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Checks if the input has expired.
+     *
+     * @return {@code true} if the input has expired, {@code false} otherwise.
+     */
+    public boolean hasExpired() {
+        return expires && System.nanoTime() - deadline > 0;
+    }
+
+    private static long remainingNanos(Instant timestamp, Duration duration) {
+        Duration remaining = Duration.between(Instant.now(), timestamp.plus(duration));
+        if (remaining.isNegative()) {
+            return 0;
+        }
+        return remaining.compareTo(Duration.ofNanos(MAX_REMAINING_NANOS)) > 0 ? MAX_REMAINING_NANOS : remaining.toNanos();
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * An immutable state machine of inputs asked one after another, e.g. a name, then an amount, then a confirmation.
+ * <p>
+ * A conversation is built once and shared by every player going through it. Starting it in a registry creates a
+ * {@link ConversationSession}, a small cursor that occupies a single slot of the registry until the conversation ends.
+ * Each response is parsed as the type of the current step and, if it passes the step's validation, handed to the step's
+ * handler before the cursor moves on. Invalid responses keep the cursor where it is, so the step is simply asked again.
+ * </p>
+ * Handlers of a session run one at a time, usually on the thread the response arrives on, and never under a lock.
+ *
+ * <pre>{@code
+ * Conversation<AsyncChatEvent, Component> signup = Conversation.<AsyncChatEvent, Component>builder()
+ *         .step("name", String.class, (session, name) -> {})
+ *         .prompt(session -> player.sendMessage("What is your name?"))
+ *         .step("age", Integer.class, age -> age > 0, (session, age) -> {})
+ *         .prompt(session -> player.sendMessage("How old are you?"))
+ *         .invalid((session, input) -> player.sendMessage("Try again."))
+ *         .completed(session -> save(session.get("name"), session.get("age")))
+ *         .stepTimeout(Duration.ofMinutes(1))
+ *         .build();
+ * }</pre>
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public final class Conversation<E,I> {
+
+    private final List<Step<E,I>> steps;
+    private final Map<String, Integer> indices;
+    private final BiConsumer<ConversationSession<E,I>, I> invalid;
+    private final Consumer<ConversationSession<E,I>> completed;
+    private final Consumer<ConversationSession<E,I>> expired;
+    private final Duration stepTimeout;
+
+    private Conversation(Builder<E,I> builder) {
+        this.steps = List.copyOf(builder.steps);
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            String name = steps.get(i).name;
+            if (indices.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("Duplicate step: " + name);
+            }
+        }
+        this.indices = Map.copyOf(indices);
+        this.invalid = builder.invalid;
+        this.completed = builder.completed;
+        this.expired = builder.expired;
+        this.stepTimeout = builder.stepTimeout;
+    }
+
+    @NotNull
+    public static <E,I> Builder<E,I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates the cursor of a player starting this conversation, positioned at the first step.
+     * Registries call this from {@link InputRegistry#start(UUID, Conversation)}.
+     *
+     * @param id The unique identifier of the player.
+     * @return The session.
+     */
+    @NotNull
+    public ConversationSession<E,I> newSession(@NotNull UUID id) {
+        return new ConversationSession<>(this, id);
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    @NotNull
+    public Step<E,I> getStep(int index) {
+        return steps.get(index);
+    }
+
+    /**
+     * Gets the position of a step.
+     *
+     * @param name The name of the step.
+     * @return The index of the step.
+     * @throws IllegalArgumentException If there is no such step.
+     */
+    public int indexOf(@NotNull String name) {
+        Integer index = indices.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown step: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the time a player has to answer each step.
+     *
+     * @return The timeout, or {@code null} if steps never expire.
+     */
+    @Nullable
+    public Duration getStepTimeout() {
+        return stepTimeout;
+    }
+
+    void invalid(ConversationSession<E,I> session, @Nullable I input) {
+        if (invalid != null) {
+            invalid.accept(session, input);
+        }
+    }
+
+    void completed(ConversationSession<E,I> session) {
+        if (completed != null) {
+            completed.accept(session);
+        }
+    }
+
+    void expired(ConversationSession<E,I> session) {
+        if (expired != null) {
+            expired.accept(session);
+        }
+    }
+
+    /**
+     * A single step of a conversation.
+     *
+     * @param <E> The event listening for inputs
+     * @param <I> The input type
+     */
+    public static final class Step<E,I> {
+
+        private final String name;
+        private final Class<?> type;
+        private final Predicate<Object> validator;
+        private final BiConsumer<ConversationSession<E,I>, Object> handler;
+        private final Consumer<ConversationSession<E,I>> prompt;
+
+        @SuppressWarnings("unchecked")
+        private Step(String name, Class<?> type, @Nullable Predicate<?> validator, BiConsumer<ConversationSession<E,I>, ?> handler, @Nullable Consumer<ConversationSession<E,I>> prompt) {
+            this.name = name;
+            this.type = type;
+            this.validator = (Predicate<Object>) validator;
+            this.handler = (BiConsumer<ConversationSession<E,I>, Object>) handler;
+            this.prompt = prompt;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        @NotNull
+        public Class<?> getType() {
+            return type;
+        }
+
+        boolean test(Object value) {
+            return validator == null || validator.test(value);
+        }
+
+        void accept(ConversationSession<E,I> session, Object value) {
+            handler.accept(session, value);
+        }
+
+        void prompt(ConversationSession<E,I> session) {
+            if (prompt != null) {
+                prompt.accept(session);
+            }
+        }
+
+    }
+
+    /**
+     * Builds a {@link Conversation}. Steps are asked in the order they are added, unless a handler moves the session elsewhere.
+     *
+     * @param <E> The event listening for inputs
+     * @param <I> The input type
+     */
+    public static final class Builder<E,I> {
+
+        private final List<Step<E,I>> steps = new ArrayList<>();
+        private BiConsumer<ConversationSession<E,I>, I> invalid;
+        private Consumer<ConversationSession<E,I>> completed;
+        private Consumer<ConversationSession<E,I>> expired;
+        private Duration stepTimeout;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a step.
+         *
+         * @param name The unique name of the step, used to read its value and to jump to it.
+         * @param type The type the response is parsed as.
+         * @param handler The handler receiving the parsed value.
+         * @return This builder.
+         */
+        public <T> Builder<E,I> step(@NotNull String name, @NotNull Class<T> type, @NotNull BiConsumer<ConversationSession<E,I>, ? super T> handler) {
+            return step(name, type, null, handler);
+        }
+
+        /**
+         * Adds a step with validation. A value failing the validation is treated like a response that could not be parsed.
+         *
+         * @param name The unique name of the step, used to read its value and to jump to it.
+         * @param type The type the response is parsed as.
+         * @param validator The validation the parsed value has to pass, or {@code null}.
+         * @param handler The handler receiving the parsed value.
+         * @return This builder.
+         */
+        public <T> Builder<E,I> step(@NotNull String name, @NotNull Class<T> type, @Nullable Predicate<? super T> validator, @NotNull BiConsumer<ConversationSession<E,I>, ? super T> handler) {
+            steps.add(new Step<>(name, type, validator, handler, null));
+            return this;
+        }
+
+        /**
+         * Sets the handler run when the session enters the last added step, usually to ask the question.
+         *
+         * @param prompt The handler.
+         * @return This builder.
+         */
+        public Builder<E,I> prompt(@NotNull Consumer<ConversationSession<E,I>> prompt) {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("No step to prompt for");
+            }
+            Step<E,I> last = steps.get(steps.size() - 1);
+            steps.set(steps.size() - 1, new Step<>(last.name, last.type, last.validator, last.handler, prompt));
+            return this;
+        }
+
+        /**
+         * Sets the handler run when a response could not be parsed or failed validation.
+         *
+         * @param handler The handler, receiving the response.
+         * @return This builder.
+         */
+        public Builder<E,I> invalid(@Nullable BiConsumer<ConversationSession<E,I>, I> handler) {
+            this.invalid = handler;
+            return this;
+        }
+
+        public Builder<E,I> completed(@Nullable Consumer<ConversationSession<E,I>> handler) {
+            this.completed = handler;
+            return this;
+        }
+
+        /**
+         * Sets the handler run when a step was not answered in time, which ends the conversation.
+         *
+         * @param handler The handler.
+         * @return This builder.
+         */
+        public Builder<E,I> expired(@Nullable Consumer<ConversationSession<E,I>> handler) {
+            this.expired = handler;
+            return this;
+        }
+
+        /**
+         * Sets the time a player has to answer each step, counted again whenever the session enters a step.
+         *
+         * @param timeout The timeout, or {@code null} if steps never expire.
+         * @return This builder.
+         */
+        public Builder<E,I> stepTimeout(@Nullable Duration timeout) {
+            this.stepTimeout = timeout;
+            return this;
+        }
+
+        @NotNull
+        public Conversation<E,I> build() {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("A conversation needs at least one step");
+            }
+            return new Conversation<>(this);
+        }
+
+    }
+
+}
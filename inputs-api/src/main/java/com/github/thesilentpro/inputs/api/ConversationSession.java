@@ -0,0 +1,246 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The progress of a player through a {@link Conversation}: the current step and the values answered so far.
+ * <p>
+ * A registry holds the session in the player's slot for the whole conversation and feeds it every response,
+ * moving between steps only changes the cursor. Handlers may call {@link #goTo(String)}, {@link #repeat()} or
+ * {@link #end()} to leave the default order, which moves on to the next step.
+ * </p>
+ * The registry feeds the session through {@link #execute(Runnable)}, one response at a time,
+ * so the methods driving it must not be called concurrently by anything else.
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public final class ConversationSession<E,I> implements Executor {
+
+    private static final int NO_JUMP = -1;
+    private static final int END = Integer.MAX_VALUE;
+
+    private final Conversation<E,I> conversation;
+    private final UUID id;
+    private final Object[] values;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Tasks submitted and not yet run, held at one by the first prompt until begin() returns
+    private final AtomicInteger work = new AtomicInteger(1);
+    private int cursor;
+    private int jump = NO_JUMP;
+    private E event;
+    private boolean finished;
+
+    ConversationSession(Conversation<E,I> conversation, UUID id) {
+        this.conversation = conversation;
+        this.id = id;
+        this.values = new Object[conversation.size()];
+    }
+
+    /**
+     * Runs a task once every task submitted before it ran, never two at once.
+     * The submitting thread runs it, unless another thread is still busy with the session and runs it afterwards.
+     * <p>
+     * Registries drive the session through this, so its handlers never overlap and run without holding any lock.
+     * Until {@link #begin()} returns, tasks only queue up.
+     * </p>
+     *
+     * @param task The task, calling into the session.
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {
+        tasks.add(task);
+        if (work.getAndIncrement() == 0) {
+            run(tasks.poll());
+            drain();
+        }
+    }
+
+    private void drain() {
+        while (work.decrementAndGet() != 0) {
+            run(tasks.poll());
+        }
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        }
+    }
+
+    /**
+     * Enters the first step, running its prompt, then the tasks queued meanwhile.
+     * Called once by the registry, after the session took the player's slot.
+     */
+    public void begin() {
+        Conversation.Step<E,I> step;
+        synchronized (this) {
+            step = conversation.getStep(cursor);
+        }
+        try {
+            step.prompt(this);
+        } finally {
+            drain();
+        }
+    }
+
+    /**
+     * Feeds a parsed response to the current step.
+     *
+     * @param value The parsed value, an instance of the current step's type.
+     * @param input The response.
+     * @param event The event the response arrived with.
+     * @return {@code true} if the session moved to another step or finished, {@code false} if the step is asked again.
+     */
+    public boolean accept(@NotNull Object value, @Nullable I input, @Nullable E event) {
+        Conversation.Step<E,I> step;
+        synchronized (this) {
+            if (finished) {
+                return false;
+            }
+            step = conversation.getStep(cursor);
+        }
+        this.event = event;
+        try {
+            if (!step.test(value)) {
+                conversation.invalid(this, input);
+                return false;
+            }
+            synchronized (this) {
+                values[cursor] = value;
+                jump = NO_JUMP;
+            }
+            step.accept(this, value);
+            int next;
+            boolean moved;
+            synchronized (this) {
+                next = jump == NO_JUMP ? cursor + 1 : jump;
+                jump = NO_JUMP;
+                moved = next != cursor;
+                if (next >= conversation.size()) {
+                    finished = true;
+                } else {
+                    cursor = next;
+                }
+            }
+            if (next >= conversation.size()) {
+                conversation.completed(this);
+                return true;
+            }
+            conversation.getStep(next).prompt(this);
+            return moved;
+        } finally {
+            this.event = null;
+        }
+    }
+
+    /**
+     * Reports a response the current step's type could not be parsed from, the step is asked again.
+     *
+     * @param input The response.
+     * @param event The event the response arrived with.
+     */
+    public void reject(@Nullable I input, @Nullable E event) {
+        this.event = event;
+        try {
+            conversation.invalid(this, input);
+        } finally {
+            this.event = null;
+        }
+    }
+
+    /**
+     * Ends the session because the current step was not answered in time.
+     */
+    public void expire() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+        conversation.expired(this);
+    }
+
+    /**
+     * Moves to a step once the current handler returns, instead of the next one.
+     *
+     * @param step The name of the step.
+     */
+    public synchronized void goTo(@NotNull String step) {
+        jump = conversation.indexOf(step);
+    }
+
+    /**
+     * Asks the current step again once the current handler returns.
+     */
+    public synchronized void repeat() {
+        jump = cursor;
+    }
+
+    /**
+     * Completes the conversation once the current handler returns, skipping the remaining steps.
+     */
+    public synchronized void end() {
+        jump = END;
+    }
+
+    /**
+     * Gets the value a step was answered with.
+     *
+     * @param step The name of the step.
+     * @param <T> The type of the step.
+     * @return The value, or {@code null} if the step has not been answered.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(@NotNull String step) {
+        return (T) values[conversation.indexOf(step)];
+    }
+
+    @NotNull
+    public Conversation<E,I> getConversation() {
+        return conversation;
+    }
+
+    @NotNull
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Gets the step the session is waiting on.
+     *
+     * @return The current step.
+     */
+    @NotNull
+    public synchronized Conversation.Step<E,I> getStep() {
+        return conversation.getStep(Math.min(cursor, conversation.size() - 1));
+    }
+
+    /**
+     * Gets the event of the response being handled.
+     *
+     * @return The event, or {@code null} outside of handlers or if the response came without one.
+     */
+    @Nullable
+    public E getEvent() {
+        return event;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+}
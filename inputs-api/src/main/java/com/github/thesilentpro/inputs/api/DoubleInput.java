@@ -0,0 +1,40 @@
+package com.github.thesilentpro.inputs.api;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * An {@link Input} of {@code double} values whose handler receives the primitive value, so it is never boxed
+ * on its way from the parser to the handler.
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public interface DoubleInput<E,I> extends Input<Double,E,I> {
+
+    /**
+     * Sets a handler to be executed with the primitive value when the expected input is successfully provided.
+     * It takes precedence over handlers set with {@link #then(java.util.function.Consumer)}.
+     *
+     * @param handler The handler that processes the input.
+     * @return The updated input instance with the handler applied.
+     */
+    DoubleInput<E,I> thenDouble(DoubleConsumer handler);
+
+    /**
+     * Sets a handler to be executed with the primitive value and the event when the expected input is successfully provided.
+     * It takes precedence over handlers set with {@link #then(java.util.function.BiConsumer)}.
+     *
+     * @param handler The handler that processes the input and the event.
+     * @return The updated input instance with the handler applied.
+     */
+    DoubleInput<E,I> thenDouble(DoubleHandler<E> handler);
+
+    /**
+     * Gets the handler that processes the primitive input.
+     *
+     * @return The handler, or {@code null} if none has been set.
+     */
+    DoubleHandler<E> getDoubleHandler();
+
+}
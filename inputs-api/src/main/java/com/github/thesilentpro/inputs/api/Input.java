@@ -3,6 +3,7 @@ package com.github.thesilentpro.inputs.api;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.*;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -11,6 +12,10 @@ import java.util.function.Consumer;
  * The input can be associated with specific handlers for successful input, mismatches,
  * expiration events, and more. The input operation has an optional expiration time and
  * can be registered in an input registry.
+ * <p>
+ * Options added since the first release have default implementations, so implementations written before them keep
+ * compiling: setting such an option throws an {@link UnsupportedOperationException}, and its getter reports it as unset.
+ * </p>
  *
  * @param <T> The type of input expected (e.g., String, Integer, etc.)
  * @param <E> The event listening for inputs
@@ -136,6 +141,7 @@ public interface Input<T,E,I> {
 
     /**
      * Sets a handler to be executed when the input has expired.
+     * If the registry evicts the input before another input arrives, the handler receives {@code null} instead of an input.
      *
      * @param handler The handler that processes the expiration event.
      * @return The updated input instance with the expiration handler applied.
@@ -144,12 +150,89 @@ public interface Input<T,E,I> {
 
     /**
      * Sets a handler to be executed when the input has expired.
+     * If the registry evicts the input before another input arrives, the handler receives {@code null} instead of an input.
      *
      * @param handler The handler that processes the expiration event.
      * @return The updated input instance with the expiration handler applied.
      */
     Input<T,E,I> expired(BiConsumer<I,E> handler);
 
+    /**
+     * Sets a handler to be executed when the input is cancelled through its {@link InputHandle} or the registry
+     * before a response arrived. It runs on the thread cancelling the input.
+     *
+     * @param handler The handler.
+     * @return The updated input instance with the cancelled handler applied.
+     */
+    default Input<T,E,I> cancelled(Runnable handler) {
+        throw new UnsupportedOperationException("Cancelled handlers are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Allows responses that do not parse to be retried, the input stays registered in its place for the next response.
+     * Each failed attempt runs the mismatch handler, the last one the {@link #exhausted(Consumer) exhausted} handler,
+     * after which the input is removed.
+     *
+     * @param retries The number of failed responses tolerated before the last attempt, {@code 0} to consume the input on the first mismatch.
+     * @return The updated input instance with the retries applied.
+     */
+    default Input<T,E,I> retries(int retries) {
+        throw new UnsupportedOperationException("Retries are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets a handler to be executed when the last attempt allowed by {@link #retries(int)} fails,
+     * instead of the mismatch handler.
+     *
+     * @param handler The handler receiving the last response.
+     * @return The updated input instance with the exhausted handler applied.
+     */
+    default Input<T,E,I> exhausted(Consumer<I> handler) {
+        throw new UnsupportedOperationException("Retries are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets a handler to be executed when the last attempt allowed by {@link #retries(int)} fails,
+     * instead of the mismatch handler.
+     *
+     * @param handler The handler receiving the last response and the event it arrived with.
+     * @return The updated input instance with the exhausted handler applied.
+     */
+    default Input<T,E,I> exhausted(BiConsumer<I,E> handler) {
+        throw new UnsupportedOperationException("Retries are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets a handler to be executed for every response dropped by the {@link #rateLimit(RateLimit) rate limit}.
+     *
+     * @param handler The handler receiving the dropped response.
+     * @return The updated input instance with the throttled handler applied.
+     */
+    default Input<T,E,I> throttled(Consumer<I> handler) {
+        throw new UnsupportedOperationException("Rate limits are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets a handler to be executed for every response dropped by the {@link #rateLimit(RateLimit) rate limit}.
+     *
+     * @param handler The handler receiving the dropped response and the event it arrived with.
+     * @return The updated input instance with the throttled handler applied.
+     */
+    default Input<T,E,I> throttled(BiConsumer<I,E> handler) {
+        throw new UnsupportedOperationException("Rate limits are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Limits how fast responses of the player are processed while this input waits, before anything is parsed.
+     * Takes precedence over a limit set on the registry.
+     *
+     * @param limit The limit, or {@code null} to use the registry's.
+     * @return The updated input instance with the rate limit applied.
+     */
+    default Input<T,E,I> rateLimit(RateLimit limit) {
+        throw new UnsupportedOperationException("Rate limits are not supported by " + getClass().getName());
+    }
+
     /**
      * Sets the timestamp at which the input was created.
      *
@@ -177,8 +260,126 @@ public interface Input<T,E,I> {
      */
     Input<T,E,I> ignoreExpired();
 
+    /**
+     * Marks the response to this input as private, registries keep it from being shown to anyone else where they can,
+     * e.g. by cancelling the chat message carrying it.
+     *
+     * @return The updated input instance marked as silent.
+     */
+    default Input<T,E,I> silent() {
+        throw new UnsupportedOperationException("Silent inputs are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets the executor the handlers of this input run on, instead of the registry's default.
+     * Parsing still happens where the input arrives. Handlers that cancel or change the event have to run inline,
+     * since the event has already been fired by the time another executor runs them.
+     *
+     * @param executor The executor, or {@code null} to use the registry's default.
+     * @return The updated input instance with the executor set.
+     */
+    default Input<T,E,I> executor(Executor executor) {
+        throw new UnsupportedOperationException("Handler executors are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Sets the tag of this input. A player has at most one pending input per tag: registering another input under the
+     * same tag replaces the pending one in place, without running its handlers. Registries may route responses to a
+     * tagged input directly instead of to the oldest pending input.
+     *
+     * @param tag The tag, or {@code null} for an untagged input.
+     * @return The updated input instance with the tag set.
+     */
+    default Input<T,E,I> tag(String tag) {
+        throw new UnsupportedOperationException("Tags are not supported by " + getClass().getName());
+    }
+
     Input<T,E,I> register(UUID id, InputRegistry<I,E> registry);
 
+    /**
+     * Registers this input and returns a handle to cancel it with, instead of the input itself.
+     *
+     * @param id The unique identifier for the input instance.
+     * @param registry The registry to register in.
+     * @return The handle.
+     */
+    default InputHandle submit(UUID id, InputRegistry<I,E> registry) {
+        return registry.register(id, compile());
+    }
+
+    /**
+     * Registers this input and returns a future completed once it is consumed, in addition to running its handlers.
+     * <p>
+     * The future completes with the parsed value, exceptionally with a {@link MismatchedInputException} if the response
+     * could not be parsed, or with a {@link java.util.concurrent.TimeoutException} once the input expires.
+     * Cancelling the future unregisters the input, so it no longer consumes a response.
+     * </p>
+     *
+     * @param id The unique identifier for the input instance.
+     * @param registry The registry to register in.
+     * @return The future.
+     */
+    default CompletableFuture<T> future(UUID id, InputRegistry<I,E> registry) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        registry.register(id, compile(future));
+        return future;
+    }
+
+    /**
+     * Registers this input and blocks until it is consumed, see {@link #future(UUID, InputRegistry)}.
+     * Meant for virtual threads, which lets a conversation of several inputs be written as straight-line code.
+     * Never call this on the thread the registry processes inputs on, it would wait for itself.
+     *
+     * @param id The unique identifier for the input instance.
+     * @param registry The registry to register in.
+     * @return The parsed value.
+     * @throws InterruptedException If the thread is interrupted while waiting, the input is unregistered.
+     * @throws TimeoutException If the input expired.
+     * @throws MismatchedInputException If the response could not be parsed.
+     */
+    default T awaitValue(UUID id, InputRegistry<I,E> registry) throws InterruptedException, TimeoutException {
+        CompletableFuture<T> future = future(id, registry);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException timeout) {
+                throw timeout;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Freezes this input into its compact, immutable form, as held by a registry once the input is registered.
+     * Changes made to this input afterwards do not affect the compiled input.
+     *
+     * @return The compiled input.
+     */
+    default CompiledInput<E,I> compile() {
+        return compile(null);
+    }
+
+    /**
+     * Freezes this input like {@link #compile()}, with a future to complete once it is consumed.
+     *
+     * @param future The future, or {@code null}.
+     * @return The compiled input.
+     * @see #future(UUID, InputRegistry)
+     */
+    default CompiledInput<E,I> compile(CompletableFuture<? super T> future) {
+        return new CompiledInput<>(getRequiredInputType(), new InputHandlers<>(getInputHandler(), getMismatchHandler(), getExpiredHandler(), future, getCancelledHandler(), getThrottledHandler(), getExhaustedHandler()), getTimestamp(), shouldIgnoreExpired() ? null : getDuration(), getExecutor(), getTag(), isSilent(), getRateLimit(), getRetries());
+    }
+
     // Getters
 
     /**
@@ -217,6 +418,69 @@ public interface Input<T,E,I> {
      */
     BiConsumer<I,E> getExpiredHandler();
 
+    /**
+     * Gets the handler that runs when the input is cancelled.
+     *
+     * @return The handler, or {@code null} if none is set.
+     */
+    default Runnable getCancelledHandler() {
+        return null;
+    }
+
+    /**
+     * Gets the handler that runs for responses dropped by the rate limit.
+     *
+     * @return The handler, or {@code null} if none is set.
+     */
+    default BiConsumer<I,E> getThrottledHandler() {
+        return null;
+    }
+
+    /**
+     * Gets the rate limit of this input.
+     *
+     * @return The limit, or {@code null} if the registry's applies.
+     */
+    default RateLimit getRateLimit() {
+        return null;
+    }
+
+    /**
+     * Gets the number of failed responses tolerated before the last attempt.
+     *
+     * @return The retries, {@code 0} if the input is consumed by the first mismatch.
+     */
+    default int getRetries() {
+        return 0;
+    }
+
+    /**
+     * Gets the handler that runs when the last attempt fails.
+     *
+     * @return The handler, or {@code null} if the mismatch handler runs instead.
+     */
+    default BiConsumer<I,E> getExhaustedHandler() {
+        return null;
+    }
+
+    /**
+     * Gets the executor the handlers of this input run on.
+     *
+     * @return The executor, or {@code null} if the registry's default is used.
+     */
+    default Executor getExecutor() {
+        return null;
+    }
+
+    /**
+     * Gets the tag of this input.
+     *
+     * @return The tag, or {@code null} if the input is untagged.
+     */
+    default String getTag() {
+        return null;
+    }
+
     /**
      * Gets the class type of the expected input.
      *
@@ -238,4 +502,13 @@ public interface Input<T,E,I> {
      */
     boolean shouldIgnoreExpired();
 
+    /**
+     * Checks if the response to this input is kept private.
+     *
+     * @return {@code true} if the input is silent.
+     */
+    default boolean isSilent() {
+        return false;
+    }
+
 }
\ No newline at end of file
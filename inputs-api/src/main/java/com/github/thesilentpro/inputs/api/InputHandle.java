@@ -0,0 +1,46 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A registered input, returned by {@link InputRegistry#register(UUID, CompiledInput)} to cancel it later,
+ * e.g. once the menu that asked for it is closed.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public interface InputHandle {
+
+    /**
+     * Gets the unique identifier the input is registered under.
+     *
+     * @return The identifier.
+     */
+    @NotNull
+    UUID getId();
+
+    /**
+     * Gets the tag of the input.
+     *
+     * @return The tag, or {@code null} if the input is untagged.
+     */
+    @Nullable
+    String getTag();
+
+    /**
+     * Checks if the input is still waiting for a response.
+     *
+     * @return {@code true} if the input has neither been consumed, expired nor cancelled.
+     */
+    boolean isPending();
+
+    /**
+     * Cancels the input, running its cancelled handler and cancelling its future, if any.
+     *
+     * @return {@code true} if the input was cancelled, {@code false} if it was no longer pending.
+     */
+    boolean cancel();
+
+}
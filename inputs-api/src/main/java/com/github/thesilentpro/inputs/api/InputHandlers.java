@@ -0,0 +1,248 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.*;
+
+/**
+ * The handlers of a {@link CompiledInput}, kept as the objects they were set as.
+ * <p>
+ * Handlers set through the single-argument overloads of {@link Input} do not need an adapter lambda,
+ * the kind of every handler is resolved once on construction and dispatched with a switch afterwards.
+ * </p>
+ * The success handler may be a {@link BiConsumer}, {@link Consumer}, {@link IntHandler}, {@link IntConsumer},
+ * {@link LongHandler}, {@link LongConsumer}, {@link DoubleHandler}, {@link DoubleConsumer} or {@link BooleanHandler}.
+ * The mismatch, expired, throttled and exhausted handlers may be a {@link BiConsumer} or {@link Consumer}.
+ * <p>
+ * An optional {@link CompletableFuture} is completed after the handlers ran: with the parsed value on success,
+ * with a {@link MismatchedInputException} on a mismatch and with a {@link TimeoutException} once the input expired.
+ * It is cancelled, after the cancelled handler ran, if the input is cancelled.
+ * </p>
+ *
+ * @param <E> The event listening for inputs
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public final class InputHandlers<E,I> {
+
+    private static final byte NONE = 0;
+    private static final byte BI_CONSUMER = 1;
+    private static final byte CONSUMER = 2;
+    private static final byte INT_HANDLER = 3;
+    private static final byte INT_CONSUMER = 4;
+    private static final byte LONG_HANDLER = 5;
+    private static final byte LONG_CONSUMER = 6;
+    private static final byte DOUBLE_HANDLER = 7;
+    private static final byte DOUBLE_CONSUMER = 8;
+    private static final byte BOOLEAN_HANDLER = 9;
+
+    private final Object success;
+    private final Object mismatch;
+    private final Object expired;
+    private final byte successKind;
+    private final byte mismatchKind;
+    private final byte expiredKind;
+    private final Object throttled;
+    private final byte throttledKind;
+    private final Object exhausted;
+    private final byte exhaustedKind;
+    private final CompletableFuture<Object> future;
+    private final Runnable cancelled;
+
+    /**
+     * Creates the handlers of a compiled input, see {@link Input#compile(CompletableFuture)}.
+     *
+     * @param success The success handler.
+     * @param mismatch The mismatch handler.
+     * @param expired The expired handler.
+     * @param future The future to complete after the handlers ran.
+     * @param cancelled The handler run when the input is cancelled.
+     * @param throttled The handler run for responses dropped by a rate limit.
+     * @param exhausted The handler run once the last attempt failed.
+     */
+    @SuppressWarnings("unchecked")
+    InputHandlers(@Nullable Object success, @Nullable Object mismatch, @Nullable Object expired, @Nullable CompletableFuture<?> future, @Nullable Runnable cancelled, @Nullable Object throttled, @Nullable Object exhausted) {
+        this.success = success;
+        this.mismatch = mismatch;
+        this.expired = expired;
+        this.successKind = successKind(success);
+        this.mismatchKind = consumerKind(mismatch);
+        this.expiredKind = consumerKind(expired);
+        this.future = (CompletableFuture<Object>) future;
+        this.cancelled = cancelled;
+        this.throttled = throttled;
+        this.throttledKind = consumerKind(throttled);
+        this.exhausted = exhausted;
+        this.exhaustedKind = consumerKind(exhausted);
+    }
+
+    /**
+     * Passes a parsed value to the success handler, unboxed if the handler takes a primitive.
+     *
+     * @param result The result holding the parsed value.
+     * @param event The event the input arrived with.
+     */
+    public void success(ParseResult result, E event) {
+        if (future == null) {
+            accept(result, event);
+            return;
+        }
+        try {
+            accept(result, event);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(result.get());
+    }
+
+    public void mismatch(@Nullable I input, @Nullable E event) {
+        try {
+            accept(mismatch, mismatchKind, input, event);
+        } finally {
+            if (future != null) {
+                future.completeExceptionally(new MismatchedInputException(input));
+            }
+        }
+    }
+
+    /**
+     * Runs the mismatch handler for a failed attempt of an input with retries left. The input keeps waiting.
+     *
+     * @param input The response that failed to parse.
+     * @param event The event the response arrived with.
+     */
+    public void retry(@Nullable I input, @Nullable E event) {
+        accept(mismatch, mismatchKind, input, event);
+    }
+
+    /**
+     * Runs the exhausted handler, or the mismatch handler if there is none, once the last attempt failed.
+     *
+     * @param input The response that failed to parse.
+     * @param event The event the response arrived with.
+     */
+    public void exhausted(@Nullable I input, @Nullable E event) {
+        if (exhaustedKind == NONE) {
+            mismatch(input, event);
+            return;
+        }
+        try {
+            accept(exhausted, exhaustedKind, input, event);
+        } finally {
+            if (future != null) {
+                future.completeExceptionally(new MismatchedInputException(input));
+            }
+        }
+    }
+
+    public void expired(@Nullable I input, @Nullable E event) {
+        try {
+            accept(expired, expiredKind, input, event);
+        } finally {
+            if (future != null) {
+                future.completeExceptionally(new TimeoutException("Input expired"));
+            }
+        }
+    }
+
+    /**
+     * Runs the throttled handler for a response dropped by the rate limit. The input keeps waiting.
+     *
+     * @param input The dropped response.
+     * @param event The event the response arrived with.
+     */
+    public void throttled(@Nullable I input, @Nullable E event) {
+        accept(throttled, throttledKind, input, event);
+    }
+
+    /**
+     * Checks if there is a throttled handler.
+     *
+     * @return {@code true} if a throttled handler is set.
+     */
+    public boolean hasThrottledHandler() {
+        return throttledKind != NONE;
+    }
+
+    /**
+     * Runs the cancelled handler and cancels the future, once the input was cancelled before it was consumed.
+     */
+    public void cancelled() {
+        try {
+            if (cancelled != null) {
+                cancelled.run();
+            }
+        } finally {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Checks if anything has to run once the input expires.
+     *
+     * @return {@code true} if there is an expired handler or a future to complete.
+     */
+    public boolean hasExpiredHandler() {
+        return expiredKind != NONE || future != null;
+    }
+
+    /**
+     * Gets the future completed by these handlers.
+     *
+     * @return The future, or {@code null} if the input was not registered for one.
+     */
+    @Nullable
+    public CompletableFuture<?> getFuture() {
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accept(ParseResult result, E event) {
+        switch (successKind) {
+            case BI_CONSUMER -> ((BiConsumer<Object,E>) success).accept(result.get(), event);
+            case CONSUMER -> ((Consumer<Object>) success).accept(result.get());
+            case INT_HANDLER -> ((IntHandler<E>) success).accept(result.getInt(), event);
+            case INT_CONSUMER -> ((IntConsumer) success).accept(result.getInt());
+            case LONG_HANDLER -> ((LongHandler<E>) success).accept(result.getLong(), event);
+            case LONG_CONSUMER -> ((LongConsumer) success).accept(result.getLong());
+            case DOUBLE_HANDLER -> ((DoubleHandler<E>) success).accept(result.getDouble(), event);
+            case DOUBLE_CONSUMER -> ((DoubleConsumer) success).accept(result.getDouble());
+            case BOOLEAN_HANDLER -> ((BooleanHandler<E>) success).accept(result.getBoolean(), event);
+            default -> {
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I,E> void accept(Object handler, byte kind, I input, E event) {
+        if (kind == BI_CONSUMER) {
+            ((BiConsumer<I,E>) handler).accept(input, event);
+        } else if (kind == CONSUMER) {
+            ((Consumer<I>) handler).accept(input);
+        }
+    }
+
+    private static byte successKind(Object handler) {
+        if (handler instanceof IntHandler<?>) return INT_HANDLER;
+        if (handler instanceof IntConsumer) return INT_CONSUMER;
+        if (handler instanceof LongHandler<?>) return LONG_HANDLER;
+        if (handler instanceof LongConsumer) return LONG_CONSUMER;
+        if (handler instanceof DoubleHandler<?>) return DOUBLE_HANDLER;
+        if (handler instanceof DoubleConsumer) return DOUBLE_CONSUMER;
+        if (handler instanceof BooleanHandler<?>) return BOOLEAN_HANDLER;
+        return consumerKind(handler);
+    }
+
+    private static byte consumerKind(Object handler) {
+        if (handler == null) return NONE;
+        if (handler instanceof BiConsumer<?,?>) return BI_CONSUMER;
+        if (handler instanceof Consumer<?>) return CONSUMER;
+        throw new IllegalArgumentException("Unsupported handler type: " + handler.getClass().getName());
+    }
+
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
  * A parser that processes a given input and converts it into a specific type.
  *
  * @param <T> The type that the input will be parsed into.
+ * @see ResultParser
  * @author TheSilentPro (Silent)
  */
 public interface InputParser<I,T> {
@@ -32,6 +32,21 @@ public interface InputParserRegistry<I> {
      */
     @NotNull <T> List<InputParser<I,T>> findAll(@NotNull Class<T> type);
 
+    /**
+     * Finds all parsers for the specified type as a {@link ParserChain}, trying them until one succeeds.
+     * Implementations should keep returning the same chain while the parsers of the type do not change,
+     * otherwise it cannot learn which parser to try first.
+     *
+     * @param type The class type of the input that needs to be parsed.
+     * @param <T> The type of the parsed value.
+     * @return An {@link Optional} containing the chain, if any parser handles the type.
+     */
+    @NotNull
+    default <T> Optional<ParserChain<I,T>> findChain(@NotNull Class<T> type) {
+        List<InputParser<I,T>> parsers = findAll(type);
+        return parsers.isEmpty() ? Optional.empty() : Optional.of(ParserChain.of(parsers));
+    }
+
     /**
      * Registers a new {@link InputParser} for the specified class type.
      *
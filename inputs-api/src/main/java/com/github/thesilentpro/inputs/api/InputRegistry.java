@@ -19,8 +19,34 @@ public interface InputRegistry<I,E> {
      *
      * @param input The input handler to register.
      * @param <T> The type of input expected (e.g., String, Integer).
+     * @return The handle to cancel the input with.
      */
-    <T> void register(UUID id, Input<T,E,I> input);
+    default <T> InputHandle register(UUID id, Input<T,E,I> input) {
+        return register(id, input.compile());
+    }
+
+    /**
+     * Registers an input in its compiled form, as created by {@link Input#compile()}.
+     *
+     * @param id The unique identifier for the input instance.
+     * @param input The compiled input to register.
+     * @return The handle to cancel the input with.
+     */
+    InputHandle register(UUID id, CompiledInput<E,I> input);
+
+    /**
+     * Starts a conversation, which holds a single slot for the player until it is completed or expires.
+     * Inputs registered for the player meanwhile queue up behind it.
+     *
+     * @param id The unique identifier of the player.
+     * @param conversation The conversation to start.
+     * @return The player's session.
+     * @throws UnsupportedOperationException If the registry does not support conversations.
+     * @throws IllegalStateException If the limits of the registry leave no room for the conversation.
+     */
+    default ConversationSession<E,I> start(UUID id, Conversation<E,I> conversation) {
+        throw new UnsupportedOperationException("Conversations are not supported by " + getClass().getName());
+    }
 
     /**
      * Processes an input string associated with a specific input handler.
@@ -0,0 +1,20 @@
+package com.github.thesilentpro.inputs.api;
+
+/**
+ * Handles a parsed {@code long} input together with the event it arrived with, without boxing the value.
+ *
+ * @param <E> The event listening for inputs
+ * @author TheSilentPro (Silent)
+ */
+@FunctionalInterface
+public interface LongHandler<E> {
+
+    /**
+     * Handles the parsed input.
+     *
+     * @param value The parsed value.
+     * @param event The event the input arrived with.
+     */
+    void accept(long value, E event);
+
+}
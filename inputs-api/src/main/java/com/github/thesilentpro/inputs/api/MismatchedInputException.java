@@ -0,0 +1,35 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+
+/**
+ * Completes the future of an {@link Input#future(java.util.UUID, InputRegistry) input} that received a response
+ * its parser could not parse. The input is consumed either way, like an input whose mismatch handler ran.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public class MismatchedInputException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object input;
+
+    public MismatchedInputException(@Nullable Object input) {
+        super("Input did not match the expected type", null, false, false);
+        this.input = input;
+    }
+
+    /**
+     * Gets the response that could not be parsed.
+     *
+     * @return The input.
+     */
+    @Nullable
+    public Object getInput() {
+        return input;
+    }
+
+}
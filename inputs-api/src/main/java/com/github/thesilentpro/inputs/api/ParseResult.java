@@ -0,0 +1,183 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A mutable, reusable holder that a {@link ResultParser} writes its parsed value into.
+ * <p>
+ * Primitive values are stored unboxed, so parsing into a result that is reused across inputs does not allocate.
+ * Every setter returns {@code true}, which lets parsers report success with {@code return result.setInt(value);}.
+ * </p>
+ * <p>
+ * Besides the value, a result carries the {@link #getSource() source} of the input it is parsing, e.g. a view of a message
+ * that serializes it once, so every parser handed the result shares it instead of deriving it again.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ */
+public final class ParseResult {
+
+    private static final byte EMPTY = 0;
+    private static final byte OBJECT = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+
+    private byte kind;
+    private Object value;
+    private long longValue;
+    private double doubleValue;
+    private Object source;
+
+    public boolean set(@NotNull Object value) {
+        this.kind = OBJECT;
+        this.value = value;
+        return true;
+    }
+
+    public boolean setBoolean(boolean value) {
+        this.kind = BOOLEAN;
+        this.longValue = value ? 1 : 0;
+        return true;
+    }
+
+    public boolean setByte(byte value) {
+        this.kind = BYTE;
+        this.longValue = value;
+        return true;
+    }
+
+    public boolean setInt(int value) {
+        this.kind = INT;
+        this.longValue = value;
+        return true;
+    }
+
+    public boolean setLong(long value) {
+        this.kind = LONG;
+        this.longValue = value;
+        return true;
+    }
+
+    public boolean setFloat(float value) {
+        this.kind = FLOAT;
+        this.doubleValue = value;
+        return true;
+    }
+
+    public boolean setDouble(double value) {
+        this.kind = DOUBLE;
+        this.doubleValue = value;
+        return true;
+    }
+
+    /**
+     * Sets the source of the input being parsed, handed to every parser writing into this result.
+     *
+     * @param source The source, or {@code null} to clear it.
+     * @return This result.
+     */
+    public ParseResult source(@Nullable Object source) {
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * Gets the source of the input being parsed.
+     *
+     * @return The source, or {@code null} if none was set.
+     */
+    @Nullable
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * Clears the value, releasing any held object. The {@link #getSource() source} is kept, it belongs to the input.
+     *
+     * @return This result.
+     */
+    public ParseResult reset() {
+        this.kind = EMPTY;
+        this.value = null;
+        return this;
+    }
+
+    /**
+     * Copies the result, e.g. to hand the value to another thread while this result is reused.
+     *
+     * @return A new result holding the same value and source.
+     */
+    @NotNull
+    public ParseResult copy() {
+        ParseResult copy = new ParseResult();
+        copy.kind = kind;
+        copy.value = value;
+        copy.longValue = longValue;
+        copy.doubleValue = doubleValue;
+        copy.source = source;
+        return copy;
+    }
+
+    /**
+     * Checks if a value has been written.
+     *
+     * @return {@code true} if the result holds a value.
+     */
+    public boolean isPresent() {
+        return kind != EMPTY;
+    }
+
+    /**
+     * Gets the value, boxing it if it was written as a primitive.
+     *
+     * @return The value.
+     * @throws IllegalStateException If no value has been written.
+     */
+    @NotNull
+    public Object get() {
+        return switch (kind) {
+            case OBJECT -> value;
+            case BOOLEAN -> longValue != 0;
+            case BYTE -> (byte) longValue;
+            case INT -> (int) longValue;
+            case LONG -> longValue;
+            case FLOAT -> (float) doubleValue;
+            case DOUBLE -> doubleValue;
+            default -> throw new IllegalStateException("No value present");
+        };
+    }
+
+    public boolean getBoolean() {
+        return kind == OBJECT ? (Boolean) value : longValue != 0;
+    }
+
+    public int getInt() {
+        return switch (kind) {
+            case OBJECT -> ((Number) value).intValue();
+            case FLOAT, DOUBLE -> (int) doubleValue;
+            default -> (int) longValue;
+        };
+    }
+
+    public long getLong() {
+        return switch (kind) {
+            case OBJECT -> ((Number) value).longValue();
+            case FLOAT, DOUBLE -> (long) doubleValue;
+            default -> longValue;
+        };
+    }
+
+    public double getDouble() {
+        return switch (kind) {
+            case OBJECT -> ((Number) value).doubleValue();
+            case FLOAT, DOUBLE -> doubleValue;
+            default -> longValue;
+        };
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tries several parsers of the same type in turn until one of them succeeds.
+ * <p>
+ * The chain counts how often each parser succeeds and about every {@value #REORDER_INTERVAL} parses reorders itself, most
+ * successful first, so the format players actually use costs a single attempt. Parsers with equal counts keep
+ * the order they were registered in.
+ * </p>
+ * <p>
+ * Counts are kept in {@link LongAdder}s and the parse that reorders is picked at random, so threads parsing through
+ * the same chain do not contend on a shared counter.
+ * </p>
+ *
+ * @param <I> The input type.
+ * @param <T> The type that the input will be parsed into.
+ * @author TheSilentPro (Silent)
+ * @see InputParserRegistry#findChain(Class)
+ */
+public final class ParserChain<I,T> implements ResultParser<I,T> {
+
+    /**
+     * The average number of parses between two reorders.
+     */
+    public static final int REORDER_INTERVAL = 256;
+
+    private final List<InputParser<I,? extends T>> parsers;
+    private final LongAdder[] successes;
+    private final LongAdder parses = new LongAdder();
+    // Indices into parsers, replaced as a whole when reordering
+    private volatile int[] order;
+
+    private ParserChain(List<? extends InputParser<I,? extends T>> parsers) {
+        this.parsers = List.copyOf(parsers);
+        this.successes = new LongAdder[this.parsers.size()];
+        this.order = new int[this.parsers.size()];
+        for (int i = 0; i < order.length; i++) {
+            successes[i] = new LongAdder();
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Creates a chain trying parsers in the given order until the counts say otherwise.
+     *
+     * @param parsers The parsers, usually {@link InputParserRegistry#findAll(Class)}.
+     * @return The chain.
+     */
+    @NotNull
+    public static <I,T> ParserChain<I,T> of(@NotNull List<? extends InputParser<I,? extends T>> parsers) {
+        if (parsers.isEmpty()) {
+            throw new IllegalArgumentException("A parser chain needs at least one parser");
+        }
+        return new ParserChain<>(parsers);
+    }
+
+    @Override
+    public boolean parse(@NotNull I input, @NotNull ParseResult result) {
+        parses.increment();
+        if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) == 0) {
+            reorder();
+        }
+        for (int index : order) {
+            if (parse(parsers.get(index), input, result)) {
+                successes[index].increment();
+                return true;
+            }
+            result.reset();
+        }
+        return false;
+    }
+
+    /**
+     * Gets the parsers of this chain in the order they were registered.
+     *
+     * @return The parsers.
+     */
+    @NotNull
+    public List<InputParser<I,? extends T>> getParsers() {
+        return parsers;
+    }
+
+    /**
+     * Gets the parsers of this chain in the order they are currently tried.
+     *
+     * @return The parsers.
+     */
+    @NotNull
+    public List<InputParser<I,? extends T>> getOrder() {
+        int[] order = this.order;
+        List<InputParser<I,? extends T>> ordered = new ArrayList<>(order.length);
+        for (int index : order) {
+            ordered.add(parsers.get(index));
+        }
+        return ordered;
+    }
+
+    /**
+     * Gets how often each parser succeeded.
+     *
+     * @return The success counts, indexed like {@link #getParsers()}.
+     */
+    public long @NotNull [] getSuccessCounts() {
+        long[] counts = new long[successes.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = successes[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Gets how often a parser succeeded.
+     *
+     * @param index The position of the parser in {@link #getParsers()}.
+     * @return The success count.
+     */
+    public long getSuccessCount(int index) {
+        return successes[index].sum();
+    }
+
+    /**
+     * Gets the number of inputs this chain has parsed, whether any parser succeeded or not.
+     *
+     * @return The number of parses.
+     */
+    public long getParses() {
+        return parses.sum();
+    }
+
+    private void reorder() {
+        long[] counts = getSuccessCounts();
+        Integer[] sorted = new Integer[counts.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        // Stable, so ties stay in registration order
+        Arrays.sort(sorted, (a, b) -> Long.compare(counts[b], counts[a]));
+        int[] order = new int[sorted.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = sorted[i];
+        }
+        this.order = order;
+    }
+
+    private static <I> boolean parse(InputParser<I,?> parser, I input, ParseResult result) {
+        if (parser instanceof ResultParser<I,?> resultParser) {
+            return resultParser.parse(input, result);
+        }
+        Optional<?> parsed = parser.parse(input);
+        return parsed.isPresent() && result.set(parsed.get());
+    }
+
+}
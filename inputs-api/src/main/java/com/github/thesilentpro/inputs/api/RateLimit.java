@@ -0,0 +1,166 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable token bucket limiting how fast a player's responses are processed, e.g. 5 responses per 10 seconds.
+ * <p>
+ * The bucket holds as many permits as are allowed per period and refills them evenly over the period.
+ * Its whole state is a single {@link AtomicLong}, the {@link System#nanoTime()} at which the bucket is full again
+ * (the generic cell rate algorithm), so taking a permit is one compare-and-set and never blocks.
+ * One limit can be applied to any number of buckets.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ */
+public final class RateLimit {
+
+    private final int permits;
+    private final Duration period;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Shed shed;
+
+    private RateLimit(int permits, Duration period, Shed shed) {
+        this.permits = permits;
+        this.period = period;
+        this.intervalNanos = Math.max(1, period.toNanos() / permits);
+        this.toleranceNanos = intervalNanos * (permits - 1);
+        this.shed = shed;
+    }
+
+    /**
+     * Creates a limit allowing a number of responses per period, all at once or spread out, shedding excess ones by ignoring them.
+     *
+     * @param permits The number of responses allowed per period.
+     * @param period The period.
+     * @return The limit.
+     */
+    @NotNull
+    public static RateLimit of(int permits, @NotNull Duration period) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive: " + permits);
+        }
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return new RateLimit(permits, period, Shed.IGNORE);
+    }
+
+    /**
+     * Creates a copy of this limit handling excess responses differently.
+     *
+     * @param shed How excess responses are handled.
+     * @return The limit.
+     */
+    @NotNull
+    public RateLimit shed(@NotNull Shed shed) {
+        return new RateLimit(permits, period, shed);
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    @NotNull
+    public Duration getPeriod() {
+        return period;
+    }
+
+    @NotNull
+    public Shed getShed() {
+        return shed;
+    }
+
+    /**
+     * Creates an empty-history bucket, holding every permit.
+     *
+     * @return The bucket.
+     */
+    @NotNull
+    public static AtomicLong newBucket() {
+        return new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit from a bucket if one is available.
+     *
+     * @param bucket The bucket, created by {@link #newBucket()}.
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code 0} if a permit was taken, otherwise the nanos until the next permit is available.
+     */
+    public long tryAcquire(@NotNull AtomicLong bucket, long now) {
+        for (;;) {
+            long full = bucket.get();
+            long base = full - now > 0 ? full : now;
+            long wait = base - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Reserves the next permit of a bucket, even if it is only available in the future.
+     * Reservations are bounded by one period, so a flood of responses cannot queue up indefinitely.
+     *
+     * @param bucket The bucket, created by {@link #newBucket()}.
+     * @param now The current {@link System#nanoTime()}.
+     * @return The nanos to wait until the reserved permit may be used, {@code 0} if it is available now,
+     *         or {@code -1} if it would be more than a period away and nothing was reserved.
+     */
+    public long reserve(@NotNull AtomicLong bucket, long now) {
+        for (;;) {
+            long full = bucket.get();
+            long base = full - now > 0 ? full : now;
+            long wait = Math.max(0, base - toleranceNanos - now);
+            if (wait > period.toNanos()) {
+                return -1;
+            }
+            if (bucket.compareAndSet(full, base + intervalNanos)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Checks if a bucket holds every permit again, so it can be dropped and later recreated without any difference.
+     *
+     * @param bucket The bucket.
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code true} if the bucket is full.
+     */
+    public static boolean isFull(@NotNull AtomicLong bucket, long now) {
+        return bucket.get() - now <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{" + permits + " per " + period + ", " + shed + "}";
+    }
+
+    /**
+     * How responses beyond the limit are handled. The throttled handler runs for every response that is dropped.
+     */
+    public enum Shed {
+
+        /**
+         * Drops the response, it is never parsed.
+         */
+        IGNORE,
+
+        /**
+         * Processes the response once a permit is available, as long as that is within a period.
+         * Responses that would have to wait longer are dropped.
+         */
+        DELAY
+
+    }
+
+}
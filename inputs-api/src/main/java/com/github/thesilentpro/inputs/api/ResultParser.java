@@ -0,0 +1,63 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * An {@link InputParser} that reports its outcome by writing into a reusable {@link ParseResult}
+ * instead of returning an {@link Optional}, so a parse does not have to allocate.
+ * <p>
+ * Registries should prefer {@link #parse(Object, ParseResult)} when a registered parser implements this interface.
+ * </p>
+ *
+ * @param <I> The input type.
+ * @param <T> The type that the input will be parsed into.
+ * @author TheSilentPro (Silent)
+ */
+@FunctionalInterface
+public interface ResultParser<I,T> extends InputParser<I,T> {
+
+    /**
+     * Creates a result parser, useful for registering a lambda where an {@link InputParser} is expected.
+     *
+     * @param parser The parser.
+     * @return The parser.
+     */
+    static <I,T> ResultParser<I,T> of(ResultParser<I,T> parser) {
+        return parser;
+    }
+
+    /**
+     * Adapts an {@link InputParser} to this contract.
+     *
+     * @param parser The parser to adapt.
+     * @return The parser itself if it already implements this interface, otherwise an adapter around it.
+     */
+    static <I,T> ResultParser<I,T> adapt(InputParser<I,T> parser) {
+        if (parser instanceof ResultParser<I,T> resultParser) {
+            return resultParser;
+        }
+        return (input, result) -> {
+            Optional<T> parsed = parser.parse(input);
+            return parsed.isPresent() && result.set(parsed.get());
+        };
+    }
+
+    /**
+     * Parses the given input, writing the value into the result on success.
+     *
+     * @param input The input to parse.
+     * @param result The result to write the parsed value into.
+     * @return {@code true} if the input was parsed, {@code false} otherwise.
+     */
+    boolean parse(@NotNull I input, @NotNull ParseResult result);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    default Optional<T> parse(I input) {
+        ParseResult result = new ParseResult();
+        return parse(input, result) ? Optional.of((T) result.get()) : Optional.empty();
+    }
+
+}
@@ -0,0 +1,320 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An {@link InputParserRegistry} publishing its parsers as immutable snapshots.
+ * <p>
+ * Every lookup is a single volatile load of a frozen, open-addressed table keyed by class identity, so parsers can be
+ * found from any thread while others are registered. {@link #find(Class)} and {@link #findAll(Class)} return the
+ * {@link Optional} and {@link List} precomputed for the type, neither copies nor wraps anything per call.
+ * </p>
+ * <p>
+ * Types without parsers of their own are resolved once per snapshot and cached in a {@link ClassValue}:
+ * a parser {@link #derive(Class) derived} for the type comes first, then the parsers of its superclasses and
+ * finally those of its interfaces. Parsers of a supertype only succeed when the value they parse is an instance of the type.
+ * </p>
+ * Writes are serialized and publish a new snapshot, which also drops every resolution cached for the previous one.
+ *
+ * @param <I> The input type
+ * @author TheSilentPro (Silent)
+ */
+public class SnapshotInputParserRegistry<I> implements InputParserRegistry<I> {
+
+    private volatile Snapshot snapshot = new Snapshot(new Class<?>[8], new Entry<?>[8], 0);
+
+    public SnapshotInputParserRegistry() {
+    }
+
+    /**
+     * Creates a registry holding the given parsers, registered in order as if by {@link #register(Class, InputParser)}.
+     * Meant for subclasses, which cannot call an overridable method safely while they are constructed.
+     *
+     * @param parsers The parsers of every type. The map is copied, later changes to it are not seen by the registry.
+     */
+    protected SnapshotInputParserRegistry(@NotNull Map<Class<?>, ? extends List<? extends InputParser<I,?>>> parsers) {
+        for (Map.Entry<Class<?>, ? extends List<? extends InputParser<I,?>>> entry : parsers.entrySet()) {
+            for (InputParser<I,?> parser : entry.getValue()) {
+                add(entry.getKey(), parser);
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<InputParser<I,T>> find(@NotNull Class<T> type) {
+        return (Optional<InputParser<I,T>>) (Optional<?>) snapshot.resolved.get(type).first;
+    }
+
+    @NotNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<InputParser<I,T>> findAll(@NotNull Class<T> type) {
+        return (List<InputParser<I,T>>) (List<?>) snapshot.resolved.get(type).view;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The chain is kept with the parsers of the type and only replaced once they change.
+     */
+    @NotNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<ParserChain<I,T>> findChain(@NotNull Class<T> type) {
+        return (Optional<ParserChain<I,T>>) (Optional<?>) snapshot.resolved.get(type).chain();
+    }
+
+    /**
+     * Creates a parser for a type nothing was registered for, e.g. for enums or records.
+     * Called at most once per type and snapshot, the result is cached until the next registration.
+     *
+     * @param type The type to parse.
+     * @return A parser for the type, or {@code null} if it cannot be derived.
+     */
+    @Nullable
+    protected InputParser<I,?> derive(@NotNull Class<?> type) {
+        return null;
+    }
+
+    /**
+     * Register a new {@link InputParser} with the class type.
+     * Parsers equal to one already registered for the type are ignored.
+     *
+     * @param type The class type for the parser
+     * @param parser The parser
+     * @param <T> The type
+     */
+    @Override
+    public synchronized <T> void register(@NotNull Class<T> type, @NotNull InputParser<I,T> parser) {
+        add(type, parser);
+    }
+
+    private void add(Class<?> type, InputParser<I,?> parser) {
+        Snapshot current = snapshot;
+        Entry<I> entry = current.get(type);
+        if (entry == null) {
+            snapshot = current.with(type, new Entry<>(new InputParser<?,?>[] {parser}));
+        } else if (entry.indexOf(parser) < 0) {
+            InputParser<?,?>[] parsers = Arrays.copyOf(entry.parsers, entry.parsers.length + 1);
+            parsers[entry.parsers.length] = parser;
+            snapshot = current.with(type, new Entry<>(parsers));
+        }
+    }
+
+    /**
+     * Replaces a registered parser of the class type with an equal one.
+     *
+     * @param type The class type for the parser
+     * @param parser The parser
+     * @param <T> The type
+     */
+    @Override
+    @ApiStatus.Experimental
+    public synchronized <T> void update(@NotNull Class<T> type, @NotNull InputParser<I,T> parser) {
+        Snapshot current = snapshot;
+        Entry<I> entry = current.get(type);
+        int index = entry == null ? -1 : entry.indexOf(parser);
+        if (index >= 0) {
+            InputParser<?,?>[] parsers = entry.parsers.clone();
+            parsers[index] = parser;
+            snapshot = current.with(type, new Entry<>(parsers));
+        }
+    }
+
+    // The parsers of one type, with the results of find and findAll computed once per snapshot
+    private static final class Entry<I> {
+
+        private static final Entry<?> NONE = new Entry<>(new InputParser<?,?>[0]);
+
+        private final InputParser<?,?>[] parsers;
+        private final List<InputParser<I,?>> view;
+        private final Optional<InputParser<I,?>> first;
+        // Created on first use, so its counts only cover the parsers it was created with
+        private volatile Optional<ParserChain<I,?>> chain;
+
+        @SuppressWarnings("unchecked")
+        private Entry(InputParser<?,?>[] parsers) {
+            this.parsers = parsers;
+            // Built once per snapshot, so findAll hands out the same immutable list on every call
+            this.view = (List<InputParser<I,?>>) (List<?>) List.of(parsers);
+            this.first = parsers.length == 0 ? Optional.empty() : Optional.of((InputParser<I,?>) parsers[0]);
+        }
+
+        private Optional<ParserChain<I,?>> chain() {
+            Optional<ParserChain<I,?>> chain = this.chain;
+            if (chain == null) {
+                synchronized (this) {
+                    chain = this.chain;
+                    if (chain == null) {
+                        chain = parsers.length == 0 ? Optional.empty() : Optional.of(ParserChain.of(view));
+                        this.chain = chain;
+                    }
+                }
+            }
+            return chain;
+        }
+
+        private int indexOf(InputParser<?,?> parser) {
+            for (int i = 0; i < parsers.length; i++) {
+                if (parsers[i].equals(parser)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+    // Only succeeds for values of the resolved type, the parser was registered for one of its supertypes
+    private static final class NarrowingParser<I> implements ResultParser<I,Object> {
+
+        private final Class<?> type;
+        private final InputParser<I,?> parser;
+
+        private NarrowingParser(Class<?> type, InputParser<I,?> parser) {
+            this.type = type;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean parse(@NotNull I input, @NotNull ParseResult result) {
+            if (parser instanceof ResultParser<I,?> resultParser) {
+                if (!resultParser.parse(input, result)) {
+                    return false;
+                }
+            } else {
+                Optional<?> parsed = parser.parse(input);
+                if (parsed.isEmpty()) {
+                    return false;
+                }
+                result.set(parsed.get());
+            }
+            if (type.isInstance(result.get())) {
+                return true;
+            }
+            result.reset();
+            return false;
+        }
+
+    }
+
+    // Open addressing with linear probing, kept at most half full
+    private final class Snapshot {
+
+        private final Class<?>[] types;
+        private final Entry<?>[] entries;
+        private final int size;
+        // Lookups of this snapshot, whatever they resolve to, a new snapshot starts with an empty cache
+        private final ClassValue<Entry<I>> resolved = new ClassValue<>() {
+            @Override
+            protected Entry<I> computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+
+        private Snapshot(Class<?>[] types, Entry<?>[] entries, int size) {
+            this.types = types;
+            this.entries = entries;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<I> resolve(Class<?> type) {
+            Entry<I> entry = get(type);
+            if (entry != null) {
+                return entry;
+            }
+            InputParser<I,?> derived = derive(type);
+            if (derived != null) {
+                return new Entry<>(new InputParser<?,?>[] {derived});
+            }
+            for (Class<?> superclass = type.getSuperclass(); superclass != null; superclass = superclass.getSuperclass()) {
+                entry = get(superclass);
+                if (entry != null) {
+                    return narrow(type, entry);
+                }
+            }
+            // Breadth first, so the interfaces closest to the type win
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            Set<Class<?>> visited = new HashSet<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                queue.addAll(Arrays.asList(current.getInterfaces()));
+            }
+            while (!queue.isEmpty()) {
+                Class<?> current = queue.poll();
+                if (!visited.add(current)) {
+                    continue;
+                }
+                entry = get(current);
+                if (entry != null) {
+                    return narrow(type, entry);
+                }
+                queue.addAll(Arrays.asList(current.getInterfaces()));
+            }
+            return (Entry<I>) Entry.NONE;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<I> narrow(Class<?> type, Entry<I> entry) {
+            InputParser<?,?>[] parsers = new InputParser<?,?>[entry.parsers.length];
+            for (int i = 0; i < parsers.length; i++) {
+                parsers[i] = new NarrowingParser<>(type, (InputParser<I,?>) entry.parsers[i]);
+            }
+            return new Entry<>(parsers);
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private Entry<I> get(Class<?> type) {
+            Class<?>[] types = this.types;
+            int mask = types.length - 1;
+            for (int slot = index(type, mask); ; slot = (slot + 1) & mask) {
+                Class<?> candidate = types[slot];
+                if (candidate == type) {
+                    return (Entry<I>) entries[slot];
+                }
+                if (candidate == null) {
+                    return null;
+                }
+            }
+        }
+
+        // A copy of this snapshot with the entry of a type set
+        private Snapshot with(Class<?> type, Entry<I> entry) {
+            boolean added = get(type) == null;
+            int capacity = added && (size + 1) * 2 > types.length ? types.length * 2 : types.length;
+            Class<?>[] types = new Class<?>[capacity];
+            Entry<?>[] entries = new Entry<?>[capacity];
+            for (int i = 0; i < this.types.length; i++) {
+                if (this.types[i] != null) {
+                    put(types, entries, this.types[i], this.entries[i]);
+                }
+            }
+            put(types, entries, type, entry);
+            return new Snapshot(types, entries, added ? size + 1 : size);
+        }
+
+        private static void put(Class<?>[] types, Entry<?>[] entries, Class<?> type, Entry<?> entry) {
+            int mask = types.length - 1;
+            int slot = index(type, mask);
+            while (types[slot] != null && types[slot] != type) {
+                slot = (slot + 1) & mask;
+            }
+            types[slot] = type;
+            entries[slot] = entry;
+        }
+
+        private static int index(Class<?> type, int mask) {
+            // Spread identity hash codes so neighbouring values do not cluster
+            int hash = type.hashCode() * 0x9E3779B9;
+            return (hash ^ hash >>> 16) & mask;
+        }
+
+    }
+
+}
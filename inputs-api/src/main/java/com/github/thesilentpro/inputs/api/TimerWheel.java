@@ -0,0 +1,222 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel that tracks deadlines of {@link Node}s with O(1) scheduling and cancellation.
+ * <p>
+ * The wheel has four levels of 64 buckets each. Level 0 buckets span a single tick, every level above spans
+ * 64 times the one below, so deadlines up to 64<sup>4</sup> ticks away are tracked exactly and anything further is
+ * parked in the last level and re-cascaded until it falls due. Advancing the wheel visits only the buckets whose
+ * ticks have elapsed, so the cost of expiring is proportional to the number of nodes that actually expire.
+ * </p>
+ * Deadlines are {@link System#nanoTime()} values. The wheel is thread-safe, expiry callbacks run on the thread that
+ * calls {@link #advance(long, Consumer)} after the wheel lock has been released.
+ *
+ * @param <N> The node type
+ * @author TheSilentPro (Silent)
+ */
+public final class TimerWheel<N extends TimerWheel.Node> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickNanos;
+    private final long origin;
+    private final Node[][] buckets;
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a timer wheel with the given tick resolution.
+     *
+     * @param tick The length of one tick.
+     * @param unit The unit of the tick.
+     */
+    public TimerWheel(long tick, @NotNull TimeUnit unit) {
+        this.tickNanos = unit.toNanos(tick);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tick + " " + unit);
+        }
+        this.origin = System.nanoTime();
+        this.buckets = new Node[LEVELS][SLOTS];
+        for (Node[] level : buckets) {
+            for (int i = 0; i < SLOTS; i++) {
+                Node sentinel = new Node();
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules a node to expire at the given deadline, rescheduling it if it was already scheduled.
+     *
+     * @param node The node.
+     * @param deadlineNanos The {@link System#nanoTime()} at which the node expires.
+     */
+    public synchronized void schedule(@NotNull N node, long deadlineNanos) {
+        Node entry = node;
+        if (entry.next != null) {
+            unlink(entry);
+            size--;
+        }
+        entry.deadline = deadlineNanos;
+        link(entry, currentTick + 1);
+        size++;
+    }
+
+    /**
+     * Removes a node from the wheel.
+     *
+     * @param node The node.
+     * @return {@code true} if the node was scheduled, {@code false} if it had already expired or was never scheduled.
+     */
+    public synchronized boolean cancel(@NotNull N node) {
+        Node entry = node;
+        if (entry.next == null) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, removing every node whose deadline has passed and passing it to the
+     * expiry callback.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @param expired The callback receiving expired nodes.
+     */
+    public void advance(long nowNanos, @NotNull Consumer<? super N> expired) {
+        List<N> due = collect(nowNanos);
+        if (due != null) {
+            for (N node : due) {
+                expired.accept(node);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of scheduled nodes.
+     *
+     * @return The number of nodes in the wheel.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // Unlinks every due node under the lock, so the callbacks can run without it.
+    @Nullable
+    private synchronized List<N> collect(long nowNanos) {
+        long elapsed = nowNanos - origin;
+        long targetTick = elapsed <= 0 ? 0 : elapsed / tickNanos;
+        List<N> expired = null;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int level = 0;
+            while (level < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+                level++;
+            }
+            // Cascade top-down, so nodes moved out of a high level can still land in a lower bucket due this tick
+            for (; level > 0; level--) {
+                Node sentinel = buckets[level][(int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK];
+                Node node = sentinel.next;
+                sentinel.next = sentinel;
+                sentinel.prev = sentinel;
+                while (node != sentinel) {
+                    Node next = node.next;
+                    link(node, currentTick);
+                    node = next;
+                }
+            }
+            expired = drain(buckets[0][(int) currentTick & SLOT_MASK], expired);
+        }
+        return expired;
+    }
+
+    // Nodes are bucketed by the tick their deadline rounds up to, so everything in an elapsed bucket is due.
+    @SuppressWarnings("unchecked")
+    private List<N> drain(Node sentinel, List<N> expired) {
+        Node node = sentinel.next;
+        if (node == sentinel) {
+            return expired;
+        }
+        if (expired == null) {
+            expired = new ArrayList<>();
+        }
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+        while (node != sentinel) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            expired.add((N) node);
+            size--;
+            node = next;
+        }
+        return expired;
+    }
+
+    private void link(Node node, long minTick) {
+        long tick = Math.max(toTick(node.deadline), minTick);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        if (delta >= 1L << (SLOT_BITS * LEVELS)) {
+            // Beyond the wheel's range, park in the furthest bucket and cascade again later
+            tick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        Node sentinel = buckets[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK];
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private long toTick(long nanos) {
+        long elapsed = nanos - origin;
+        return elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * An intrusive entry of a {@link TimerWheel}. Extend it to attach the data that should expire.
+     */
+    public static class Node {
+
+        private Node prev;
+        private Node next;
+        private long deadline;
+
+        /**
+         * Gets the deadline this node was last scheduled with.
+         *
+         * @return The {@link System#nanoTime()} at which the node expires.
+         */
+        public final long getDeadline() {
+            return deadline;
+        }
+
+    }
+
+}
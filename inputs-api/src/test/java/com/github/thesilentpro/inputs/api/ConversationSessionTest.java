@@ -0,0 +1,221 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversationSessionTest {
+
+    private List<String> log;
+    private Conversation<Object, String> conversation;
+
+    @BeforeEach
+    void setUp() {
+        log = new ArrayList<>();
+        conversation = Conversation.<Object, String>builder()
+                .step("name", String.class, (session, name) -> {})
+                .prompt(session -> log.add("name?"))
+                .step("amount", Integer.class, amount -> amount > 0, (session, amount) -> {
+                    if (amount > 100) {
+                        session.goTo("confirm");
+                    }
+                })
+                .prompt(session -> log.add("amount?"))
+                .step("note", String.class, (session, note) -> {})
+                .prompt(session -> log.add("note?"))
+                .step("confirm", Boolean.class, (session, confirmed) -> {
+                    if (!confirmed) {
+                        session.goTo("name");
+                    }
+                })
+                .prompt(session -> log.add("confirm?"))
+                .invalid((session, input) -> log.add("invalid " + input))
+                .completed(session -> log.add("done"))
+                .expired(session -> log.add("expired"))
+                .build();
+    }
+
+    @Test
+    void walksTheStepsInOrder() {
+        ConversationSession<Object, String> session = begin();
+
+        assertTrue(session.accept("Alex", "Alex", null));
+        assertTrue(session.accept(5, "5", null));
+        assertTrue(session.accept("hi", "hi", null));
+        assertTrue(session.accept(true, "yes", null));
+
+        assertEquals(List.of("name?", "amount?", "note?", "confirm?", "done"), log);
+        assertTrue(session.isFinished());
+        assertEquals("Alex", session.get("name"));
+        assertEquals(5, (int) session.get("amount"));
+        assertEquals("hi", session.get("note"));
+    }
+
+    @Test
+    void invalidValuesKeepTheStep() {
+        ConversationSession<Object, String> session = begin();
+        session.accept("Alex", "Alex", null);
+
+        assertFalse(session.accept(-3, "-3", null));
+        session.reject("abc", null);
+
+        assertEquals(List.of("name?", "amount?", "invalid -3", "invalid abc"), log);
+        assertEquals("amount", session.getStep().getName());
+        assertNull(session.get("amount"));
+    }
+
+    @Test
+    void handlersMoveTheCursor() {
+        ConversationSession<Object, String> session = begin();
+        session.accept("Alex", "Alex", null);
+
+        // Skips the note, then goes back to the start
+        session.accept(500, "500", null);
+        assertEquals("confirm", session.getStep().getName());
+        session.accept(false, "no", null);
+
+        assertEquals("name", session.getStep().getName());
+        assertEquals(List.of("name?", "amount?", "confirm?", "name?"), log);
+        assertFalse(session.isFinished());
+    }
+
+    @Test
+    void repeatingAStepIsNotAMove() {
+        Conversation<Object, String> again = Conversation.<Object, String>builder()
+                .step("word", String.class, (session, word) -> {
+                    if (word.equals("again")) {
+                        session.repeat();
+                    } else {
+                        session.end();
+                    }
+                })
+                .build();
+        ConversationSession<Object, String> session = again.newSession(UUID.randomUUID());
+        session.begin();
+
+        assertFalse(session.accept("again", "again", null));
+        assertFalse(session.isFinished());
+        assertTrue(session.accept("stop", "stop", null));
+        assertTrue(session.isFinished());
+    }
+
+    @Test
+    void expiresOnlyOnce() {
+        ConversationSession<Object, String> session = begin();
+
+        session.expire();
+        session.expire();
+
+        assertEquals(List.of("name?", "expired"), log);
+        assertTrue(session.isFinished());
+        assertFalse(session.accept("Alex", "Alex", null));
+    }
+
+    @Test
+    void tasksQueueUntilTheFirstPromptReturns() {
+        ConversationSession<Object, String> session = conversation.newSession(UUID.randomUUID());
+        session.execute(() -> log.add("task"));
+        assertTrue(log.isEmpty());
+
+        session.begin();
+        assertEquals(List.of("name?", "task"), log);
+
+        session.execute(() -> log.add("now"));
+        assertEquals(List.of("name?", "task", "now"), log);
+    }
+
+    @Test
+    void tasksSubmittedFromATaskRunAfterIt() {
+        ConversationSession<Object, String> session = begin();
+
+        session.execute(() -> {
+            session.execute(() -> log.add("inner"));
+            log.add("outer");
+        });
+
+        assertEquals(List.of("name?", "outer", "inner"), log);
+    }
+
+    @Test
+    void aFailingTaskDoesNotStopTheQueue() {
+        ConversationSession<Object, String> session = begin();
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+        List<Throwable> errors = new ArrayList<>();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try {
+            session.execute(() -> {
+                session.execute(() -> log.add("after"));
+                throw new IllegalStateException("boom");
+            });
+        } finally {
+            thread.setUncaughtExceptionHandler(previous);
+        }
+
+        assertEquals(List.of("name?", "after"), log);
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    void tasksNeverOverlap() throws InterruptedException {
+        ConversationSession<Object, String> session = begin();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        int threads = 8;
+        int tasks = 10_000;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < tasks; j++) {
+                    session.execute(() -> {
+                        if (running.incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        runs.incrementAndGet();
+                        running.decrementAndGet();
+                    });
+                }
+            });
+        }
+        ready.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(0, overlaps.get());
+        assertEquals(threads * tasks, runs.get());
+    }
+
+    @Test
+    void rejectsUnknownAndDuplicateSteps() {
+        ConversationSession<Object, String> session = begin();
+        assertThrows(IllegalArgumentException.class, () -> session.goTo("missing"));
+        assertThrows(IllegalArgumentException.class, () -> Conversation.builder()
+                .step("same", String.class, (s, value) -> {})
+                .step("same", String.class, (s, value) -> {})
+                .build());
+    }
+
+    private ConversationSession<Object, String> begin() {
+        ConversationSession<Object, String> session = conversation.newSession(UUID.randomUUID());
+        session.begin();
+        return session;
+    }
+
+}
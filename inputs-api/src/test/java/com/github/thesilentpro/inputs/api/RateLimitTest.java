@@ -0,0 +1,109 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTest {
+
+    // Permits spaced 10ms apart, five of them at once
+    private static final RateLimit LIMIT = RateLimit.of(5, Duration.ofMillis(50));
+    private static final long INTERVAL = Duration.ofMillis(10).toNanos();
+
+    @Test
+    void allowsABurstOfEveryPermit() {
+        long now = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(now);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, LIMIT.tryAcquire(bucket, now), "permit " + i);
+        }
+        assertEquals(INTERVAL, LIMIT.tryAcquire(bucket, now));
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        long now = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(now);
+        for (int i = 0; i < 5; i++) {
+            LIMIT.tryAcquire(bucket, now);
+        }
+
+        assertEquals(INTERVAL / 2, LIMIT.tryAcquire(bucket, now + INTERVAL / 2));
+        assertEquals(0, LIMIT.tryAcquire(bucket, now + INTERVAL));
+        assertEquals(INTERVAL, LIMIT.tryAcquire(bucket, now + INTERVAL));
+    }
+
+    @Test
+    void failedAttemptsTakeNothing() {
+        long now = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(now);
+        for (int i = 0; i < 5; i++) {
+            LIMIT.tryAcquire(bucket, now);
+        }
+        long full = bucket.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(LIMIT.tryAcquire(bucket, now) > 0);
+        }
+        assertEquals(full, bucket.get());
+    }
+
+    @Test
+    void neverGrantsMoreThanTheRate() {
+        long start = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(start);
+        int granted = 0;
+        // One attempt every millisecond for a second
+        for (long now = start; now - start < Duration.ofSeconds(1).toNanos(); now += 1_000_000) {
+            if (LIMIT.tryAcquire(bucket, now) == 0) {
+                granted++;
+            }
+        }
+
+        // The burst, then one permit every interval
+        assertEquals(5 + 99, granted);
+    }
+
+    @Test
+    void idleTimeBeyondAPeriodIsNotBanked() {
+        long now = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(now);
+        long later = now + Duration.ofMinutes(1).toNanos();
+
+        assertTrue(RateLimit.isFull(bucket, later));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, LIMIT.tryAcquire(bucket, later));
+        }
+        assertTrue(LIMIT.tryAcquire(bucket, later) > 0);
+        assertFalse(RateLimit.isFull(bucket, later));
+    }
+
+    @Test
+    void reservesPermitsInTheFutureUpToAPeriod() {
+        long now = System.nanoTime();
+        AtomicLong bucket = new AtomicLong(now);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, LIMIT.reserve(bucket, now));
+        }
+
+        // The next five come one interval apart
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i * INTERVAL, LIMIT.reserve(bucket, now));
+        }
+        long full = bucket.get();
+        assertEquals(-1, LIMIT.reserve(bucket, now));
+        assertEquals(full, bucket.get());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(1, Duration.ofSeconds(-1)));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.github.thesilentpro.inputs.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private TimerWheel<Entry> wheel;
+    private long start;
+    private List<Entry> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel<>(1, TimeUnit.MILLISECONDS);
+        // Taken after the wheel's origin, so a deadline never lands in an earlier tick than intended
+        start = System.nanoTime();
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void expiresNodesOnceTheirDeadlinePassed() {
+        Entry early = schedule(5);
+        Entry late = schedule(20);
+
+        advance(4);
+        assertTrue(expired.isEmpty());
+
+        advance(6);
+        assertEquals(List.of(early), expired);
+
+        advance(21);
+        assertEquals(List.of(early, late), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledNodesNeverExpire() {
+        Entry entry = schedule(5);
+
+        assertTrue(wheel.cancel(entry));
+        assertFalse(wheel.cancel(entry));
+        advance(10);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() {
+        Entry entry = schedule(5);
+        wheel.schedule(entry, start + 50 * TICK);
+        assertEquals(1, wheel.size());
+
+        advance(10);
+        assertTrue(expired.isEmpty());
+
+        advance(51);
+        assertEquals(List.of(entry), expired);
+    }
+
+    @Test
+    void cascadesNodesFromHigherLevels() {
+        // Level 1 starts at 64 ticks, level 2 at 4096
+        Entry second = schedule(100);
+        Entry third = schedule(10_000);
+
+        advance(99);
+        assertTrue(expired.isEmpty());
+        advance(101);
+        assertEquals(List.of(second), expired);
+
+        advance(9_999);
+        assertEquals(List.of(second), expired);
+        advance(10_001);
+        assertEquals(List.of(second, third), expired);
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheRange() {
+        long beyond = (1L << 24) + 1_000;
+        Entry entry = schedule(beyond);
+
+        advance(1L << 24);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+
+        advance(beyond + 1);
+        assertEquals(List.of(entry), expired);
+    }
+
+    @Test
+    void deadlinesInThePastExpireOnTheNextTick() {
+        Entry entry = new Entry();
+        wheel.schedule(entry, start - 100 * TICK);
+
+        advance(1);
+        assertEquals(List.of(entry), expired);
+    }
+
+    @Test
+    void rejectsNonPositiveTicks() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(0, TimeUnit.MILLISECONDS));
+    }
+
+    private Entry schedule(long ticks) {
+        Entry entry = new Entry();
+        wheel.schedule(entry, start + ticks * TICK);
+        return entry;
+    }
+
+    private void advance(long ticks) {
+        wheel.advance(start + ticks * TICK, expired::add);
+    }
+
+    private static final class Entry extends TimerWheel.Node {
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.CompiledInput;
+import com.github.thesilentpro.inputs.api.InputParser;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A question asked to many players at once, e.g. a vote or a trivia round, registered through
+ * {@link PaperInputRegistry#broadcast(com.github.thesilentpro.inputs.api.Input, java.util.Collection, boolean)}.
+ * <p>
+ * All participants share the one compiled input the broadcast was created from, instead of an input per player.
+ * What remains per participant is a slot in a fixed table holding the two longs of their id, kept at most two thirds full,
+ * and a bit marking who answered, about 24 to 48 bytes per participant depending on how the table size rounds.
+ * Every participant answers at most once, only messages that parse count as answers and any other message stays regular chat.
+ * </p>
+ * With tallying, parsed answers are counted in {@link LongAdder}s, which stay uncontended however many chat threads answer at once.
+ *
+ * @param <T> The type of the answers.
+ */
+public final class Broadcast<T> {
+
+    // Each word holds the answered bits of 63 slots, its top bit marks the broadcast closed,
+    // so a single compare-and-set both checks that it is open and records the answer
+    private static final int SLOTS_PER_WORD = 63;
+    private static final long CLOSED = 1L << SLOTS_PER_WORD;
+
+    private final PaperInputRegistry registry;
+    private final CompiledInput<AsyncChatEvent,Component> template;
+    private final InputParser<Component,?> parser;
+    private final PlayerSet participants;
+    private final AtomicLongArray answered;
+    private final LongAdder answers = new LongAdder();
+    private final ConcurrentHashMap<T, LongAdder> tallies;
+    private volatile boolean open = true;
+
+    Broadcast(PaperInputRegistry registry, CompiledInput<AsyncChatEvent,Component> template, InputParser<Component,?> parser, PlayerSet participants, boolean tally) {
+        this.registry = registry;
+        this.template = template;
+        this.parser = parser;
+        this.participants = participants;
+        this.answered = new AtomicLongArray((participants.capacity() + SLOTS_PER_WORD - 1) / SLOTS_PER_WORD);
+        this.tallies = tally ? new ConcurrentHashMap<>() : null;
+    }
+
+    CompiledInput<AsyncChatEvent,Component> getTemplate() {
+        return template;
+    }
+
+    InputParser<Component,?> getParser() {
+        return parser;
+    }
+
+    // The slot of a participant who has not answered yet, or -1, also once closed
+    int pendingSlot(UUID id) {
+        int slot = participants.indexOf(id);
+        return slot < 0 || (answered.get(slot / SLOTS_PER_WORD) & (CLOSED | bit(slot))) != 0 ? -1 : slot;
+    }
+
+    // Marks the participant of a slot as answered, counting the answer if it is the first and the broadcast is open
+    @SuppressWarnings("unchecked")
+    boolean answer(int slot, Object value) {
+        int index = slot / SLOTS_PER_WORD;
+        long bit = bit(slot);
+        for (;;) {
+            long word = answered.get(index);
+            if ((word & (CLOSED | bit)) != 0) {
+                return false;
+            }
+            if (answered.compareAndSet(index, word, word | bit)) {
+                break;
+            }
+        }
+        answers.increment();
+        if (tallies != null) {
+            tallies.computeIfAbsent((T) value, key -> new LongAdder()).increment();
+        }
+        return true;
+    }
+
+    // Called by the registry once the broadcast is removed, answers that did not set their bit by now are refused
+    void closed() {
+        open = false;
+        for (int i = 0; i < answered.length(); i++) {
+            answered.getAndUpdate(i, word -> word | CLOSED);
+        }
+    }
+
+    private static long bit(int slot) {
+        return 1L << slot % SLOTS_PER_WORD;
+    }
+
+    /**
+     * Checks if a player takes part in this broadcast.
+     *
+     * @param id The player's unique identifier.
+     * @return {@code true} if the player was asked.
+     */
+    public boolean isParticipant(@NotNull UUID id) {
+        return participants.indexOf(id) >= 0;
+    }
+
+    /**
+     * Checks if a player answered.
+     *
+     * @param id The player's unique identifier.
+     * @return {@code true} if the player is a participant and answered.
+     */
+    public boolean hasAnswered(@NotNull UUID id) {
+        int slot = participants.indexOf(id);
+        return slot >= 0 && (answered.get(slot / SLOTS_PER_WORD) & bit(slot)) != 0;
+    }
+
+    public int getParticipants() {
+        return participants.size();
+    }
+
+    /**
+     * Gets the number of participants who answered so far.
+     *
+     * @return The number of answers.
+     */
+    public long getAnswers() {
+        return answers.sum();
+    }
+
+    /**
+     * Gets how often a value was answered.
+     *
+     * @param value The answer.
+     * @return The count, {@code 0} if nobody gave that answer or the broadcast does not tally.
+     */
+    public long getCount(@NotNull T value) {
+        if (tallies == null) {
+            return 0;
+        }
+        LongAdder tally = tallies.get(value);
+        return tally == null ? 0 : tally.sum();
+    }
+
+    /**
+     * Gets the live results, a snapshot of how often each value was answered.
+     *
+     * @return The counts of every given answer, empty if the broadcast does not tally.
+     */
+    @NotNull
+    public Map<T, Long> getResults() {
+        if (tallies == null) {
+            return Collections.emptyMap();
+        }
+        Map<T, Long> results = new HashMap<>();
+        tallies.forEach((value, tally) -> results.put(value, tally.sum()));
+        return results;
+    }
+
+    public boolean isTallying() {
+        return tallies != null;
+    }
+
+    /**
+     * Checks if the broadcast still takes answers.
+     *
+     * @return {@code true} until it is closed or expired.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Stops taking answers. The results stay available.
+     * No answer is taken once this returns, one taken just before may still reach the counts a moment later.
+     *
+     * @return {@code true} if the broadcast was open.
+     */
+    public boolean close() {
+        return registry.close(this);
+    }
+
+}
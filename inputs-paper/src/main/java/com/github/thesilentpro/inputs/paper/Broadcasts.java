@@ -0,0 +1,55 @@
+package com.github.thesilentpro.inputs.paper;
+
+import java.util.Arrays;
+
+/**
+ * The open {@link Broadcast broadcasts} of a {@link PaperInputRegistry}.
+ * <p>
+ * The array is replaced as a whole whenever a broadcast opens or closes, which is rare,
+ * so chat threads offering messages to the broadcasts iterate a snapshot without locking.
+ * </p>
+ */
+final class Broadcasts {
+
+    private static final Broadcast<?>[] NONE = new Broadcast<?>[0];
+
+    private volatile Broadcast<?>[] open = NONE;
+
+    boolean isEmpty() {
+        return open.length == 0;
+    }
+
+    // Never modified, safe to iterate while broadcasts open and close
+    Broadcast<?>[] snapshot() {
+        return open;
+    }
+
+    synchronized void add(Broadcast<?> broadcast) {
+        Broadcast<?>[] current = open;
+        Broadcast<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = broadcast;
+        open = updated;
+    }
+
+    /**
+     * Removes a broadcast, marking it closed.
+     *
+     * @param broadcast The broadcast.
+     * @return {@code true} if it was open, {@code false} if it was closed already.
+     */
+    synchronized boolean remove(Broadcast<?> broadcast) {
+        Broadcast<?>[] current = open;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == broadcast) {
+                Broadcast<?>[] updated = current.length == 1 ? NONE : new Broadcast<?>[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                open = updated;
+                broadcast.closed();
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
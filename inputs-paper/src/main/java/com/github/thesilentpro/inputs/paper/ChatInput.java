@@ -0,0 +1,124 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.ParseResult;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of a chat message that serializes it to trimmed plain text at most once.
+ * <p>
+ * A {@link PaperInputRegistry} hands the view of a message to its parsers as the {@link ParseResult#getSource() source}
+ * of the result they write into, so every parser calling {@link #of(Component, ParseResult)} shares the same lazily computed text,
+ * whichever thread it runs on.
+ * A single {@link TextComponent} without children is read directly, without running the serializer.
+ * </p>
+ */
+public final class ChatInput {
+
+    private static final PlainTextComponentSerializer SERIALIZER = PlainTextComponentSerializer.plainText();
+
+    private final Component component;
+    // What parsers receive, the component itself unless this view is a slice of it
+    private Component parsed;
+    private String text;
+
+    private ChatInput(Component component) {
+        this.component = component;
+        this.parsed = component;
+    }
+
+    private ChatInput(Component component, String text) {
+        this.component = component;
+        this.text = text;
+    }
+
+    /**
+     * Creates a view of a message.
+     *
+     * @param component The message.
+     * @return The view of the message.
+     */
+    @NotNull
+    public static ChatInput of(@NotNull Component component) {
+        return new ChatInput(component);
+    }
+
+    /**
+     * Gets the view of a message being parsed into a result, reusing the result's source if it is a view of the same message.
+     * A new view becomes the source, so later parsers writing into the result share it.
+     *
+     * @param component The message.
+     * @param result The result the message is parsed into.
+     * @return The view of the message.
+     */
+    @NotNull
+    public static ChatInput of(@NotNull Component component, @NotNull ParseResult result) {
+        if (result.getSource() instanceof ChatInput view && (view.component == component || view.parsed == component)) {
+            return view;
+        }
+        ChatInput view = new ChatInput(component);
+        result.source(view);
+        return view;
+    }
+
+    /**
+     * Creates a view of the same message whose text starts at an offset of this view's text, e.g. after a routing prefix.
+     * The component is kept as is, so handlers still receive the message with its formatting,
+     * parsers are given a plain text component of the remaining text instead, see {@link #parsed()}.
+     *
+     * @param from The offset in {@link #text()}.
+     * @return The view of the remaining text, trimmed.
+     */
+    @NotNull
+    ChatInput slice(int from) {
+        return new ChatInput(component, text().substring(from).trim());
+    }
+
+    @NotNull
+    public Component component() {
+        return component;
+    }
+
+    /**
+     * Gets the component handed to parsers: the message itself, or the plain remaining text of a {@link #slice(int) slice},
+     * created on first use.
+     *
+     * @return The component to parse.
+     */
+    @NotNull
+    Component parsed() {
+        Component parsed = this.parsed;
+        if (parsed == null) {
+            parsed = Component.text(text);
+            this.parsed = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * Gets the plain text of the message with leading and trailing whitespace removed.
+     *
+     * @return The trimmed plain text.
+     */
+    @NotNull
+    public String text() {
+        String text = this.text;
+        if (text == null) {
+            if (component instanceof TextComponent textComponent && textComponent.children().isEmpty()) {
+                text = textComponent.content().trim();
+            } else {
+                text = SERIALIZER.serialize(component).trim();
+            }
+            this.text = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link PlayerInputStore} keyed by the two longs of each {@link UUID}, using open addressing with linear probing.
+ * <p>
+ * Keys are stored inline in a {@code long[]} next to a parallel array of snapshots, so a player with a single pending input
+ * costs two longs and a reference, no entry, key or queue object. The table grows at half load and shrinks again as players
+ * leave, so its memory follows the number of pending inputs. At {@value #MAX_CAPACITY} slots it stops growing, and adding
+ * a player once a single free slot is left throws an {@link IllegalStateException}.
+ * </p>
+ * Lookups are optimistic reads that never block, changes are serialized by the write lock.
+ */
+final class CompactInputStore implements PlayerInputStore {
+
+    static final int MIN_CAPACITY = 16;
+    // Each slot takes two longs of the key array, which must stay within an array's length
+    static final int MAX_CAPACITY = 1 << 29;
+
+    private final StampedLock lock = new StampedLock();
+    private final int minCapacity;
+    // Replaced as a whole on resize, so an optimistic reader always sees arrays of matching length
+    private Table table;
+    private volatile int size;
+
+    CompactInputStore(int capacity) {
+        this.minCapacity = tableSizeFor(capacity);
+        this.table = new Table(minCapacity);
+    }
+
+    @Nullable
+    @Override
+    public PlayerInputs get(@NotNull UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            PlayerInputs inputs = find(table, msb, lsb);
+            if (lock.validate(stamp)) {
+                return inputs;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, msb, lsb);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(@NotNull UUID id, @NotNull PlayerInputs inputs) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            Table table = this.table;
+            int slot = table.slot(msb, lsb);
+            if (table.values[slot] != null) {
+                return false;
+            }
+            if ((size + 1) * 2 > table.values.length && table.values.length < MAX_CAPACITY) {
+                table = resize(table.values.length * 2);
+                slot = table.slot(msb, lsb);
+            } else if (size + 1 == table.values.length) {
+                // The last free slot is what ends every probe sequence
+                throw new IllegalStateException("The store is full: " + size + " players");
+            }
+            table.keys[slot * 2] = msb;
+            table.keys[slot * 2 + 1] = lsb;
+            table.values[slot] = inputs;
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(@NotNull UUID id, @NotNull PlayerInputs expected, @NotNull PlayerInputs inputs) {
+        long stamp = lock.writeLock();
+        try {
+            Table table = this.table;
+            int slot = table.slot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (table.values[slot] != expected) {
+                return false;
+            }
+            table.values[slot] = inputs;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(@NotNull UUID id, @NotNull PlayerInputs expected) {
+        long stamp = lock.writeLock();
+        try {
+            Table table = this.table;
+            int slot = table.slot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (table.values[slot] != expected) {
+                return false;
+            }
+            table.delete(slot);
+            size--;
+            if (table.values.length > minCapacity && size * 8 < table.values.length) {
+                resize(table.values.length / 2);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(@NotNull Consumer<? super PlayerInputs> action) {
+        PlayerInputs[] values;
+        long stamp = lock.readLock();
+        try {
+            values = Arrays.copyOf(table.values, table.values.length);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        // Outside the lock, the action may change the store and the lock is not reentrant
+        for (PlayerInputs inputs : values) {
+            if (inputs != null) {
+                action.accept(inputs);
+            }
+        }
+    }
+
+    // May see a table in the middle of a change when reading optimistically, the caller validates the result
+    @Nullable
+    private static PlayerInputs find(Table table, long msb, long lsb) {
+        long[] keys = table.keys;
+        PlayerInputs[] values = table.values;
+        int mask = values.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        // Bounded, a torn read must not spin forever
+        for (int probes = 0; probes <= mask; probes++) {
+            PlayerInputs inputs = values[slot];
+            if (inputs == null) {
+                return null;
+            }
+            if (keys[slot * 2] == msb && keys[slot * 2 + 1] == lsb) {
+                return inputs;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private Table resize(int capacity) {
+        Table old = table;
+        Table resized = new Table(capacity);
+        for (int i = 0; i < old.values.length; i++) {
+            if (old.values[i] != null) {
+                long msb = old.keys[i * 2];
+                long lsb = old.keys[i * 2 + 1];
+                int slot = resized.slot(msb, lsb);
+                resized.keys[slot * 2] = msb;
+                resized.keys[slot * 2 + 1] = lsb;
+                resized.values[slot] = old.values[i];
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    static int hash(long msb, long lsb) {
+        // Finalizer of MurmurHash3, version 3 (offline) UUIDs are not as evenly spread as random ones
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        if (capacity <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        return capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private static final class Table {
+
+        // The most significant bits of a slot's key at 2 * slot, the least significant ones right after
+        private final long[] keys;
+        // A null snapshot marks a free slot
+        private final PlayerInputs[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity * 2];
+            this.values = new PlayerInputs[capacity];
+        }
+
+        // The slot holding a key, or the free slot ending its probe sequence
+        private int slot(long msb, long lsb) {
+            int mask = values.length - 1;
+            int slot = hash(msb, lsb) & mask;
+            while (values[slot] != null && (keys[slot * 2] != msb || keys[slot * 2 + 1] != lsb)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // Backward shift deletion, later keys of the same probe sequence move up so no tombstones are needed
+        private void delete(int slot) {
+            int mask = values.length - 1;
+            int free = slot;
+            int next = slot;
+            for (;;) {
+                next = (next + 1) & mask;
+                if (values[next] == null) {
+                    break;
+                }
+                int home = hash(keys[next * 2], keys[next * 2 + 1]) & mask;
+                // Keys whose home lies cyclically within (free, next] are still reachable where they are
+                boolean reachable = free <= next ? free < home && home <= next : free < home || home <= next;
+                if (!reachable) {
+                    keys[free * 2] = keys[next * 2];
+                    keys[free * 2 + 1] = keys[next * 2 + 1];
+                    values[free] = values[next];
+                    free = next;
+                }
+            }
+            values[free] = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.ConversationSession;
+import com.github.thesilentpro.inputs.api.InputParser;
+import com.github.thesilentpro.inputs.api.ParseResult;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Drives the {@link ConversationSession sessions} held in a {@link PaperInputRegistry}.
+ * <p>
+ * A session stays in the player's slot for the whole conversation, responses only move its cursor.
+ * Each step that has a timeout reschedules the slot's entry, which expires the session once it fires.
+ * Responses and expiry are run through the session's {@link ConversationSession#execute(Runnable) executor},
+ * so the handlers they call never overlap and never run under a lock.
+ * </p>
+ */
+final class Conversations {
+
+    private Conversations() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // The session stays in the slot, only its cursor moves until the conversation ends
+    static void converse(PaperInputRegistry registry, PendingInput pending, ChatInput message, @Nullable AsyncChatEvent event) {
+        ConversationSession<AsyncChatEvent,Component> session = pending.getSession();
+        session.execute(() -> {
+            if (pending.isClaimed()) {
+                // Expired meanwhile
+                return;
+            }
+            InputParser<Component,?> parser = registry.parser(session.getStep().getType());
+            if (parser == null) {
+                return;
+            }
+            Component input = message.component();
+            ParseResult result = PaperInputRegistry.RESULT.get();
+            Object value = null;
+            try {
+                if (PaperInputRegistry.parse(parser, message, result)) {
+                    value = result.get();
+                    result.reset();
+                }
+            } finally {
+                result.source(null);
+            }
+            if (value == null) {
+                session.reject(input, event);
+                return;
+            }
+            session.accept(value, input, event);
+            if (session.isFinished()) {
+                registry.cancel(pending, false);
+            } else {
+                scheduleStep(registry, pending);
+            }
+        });
+    }
+
+    static void scheduleStep(PaperInputRegistry registry, PendingInput pending) {
+        Duration timeout = pending.getSession().getConversation().getStepTimeout();
+        if (timeout != null) {
+            registry.schedule(pending, System.nanoTime() + Math.min(timeout.toNanos(), Long.MAX_VALUE >> 2));
+        }
+    }
+
+    static void expire(PaperInputRegistry registry, PendingInput pending) {
+        ConversationSession<AsyncChatEvent,Component> session = pending.getSession();
+        session.execute(() -> {
+            // A step answered meanwhile moved the deadline and rescheduled the entry
+            if (System.nanoTime() - pending.getDeadline() < 0 || !pending.claim()) {
+                return;
+            }
+            registry.unlink(pending);
+            session.expire();
+        });
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.Input;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for running input handlers, see {@link Input#executor(Executor)} and {@link PaperInputRegistry#executor(Executor)}.
+ */
+public final class InputExecutors {
+
+    private static final Executor INLINE = Runnable::run;
+
+    private InputExecutors() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Runs handlers on the thread the input arrived on, the async chat thread for chat messages.
+     * Handlers may cancel or change the event only when run this way.
+     *
+     * @return The executor.
+     */
+    @NotNull
+    public static Executor inline() {
+        return INLINE;
+    }
+
+    /**
+     * Runs every handler on a new virtual thread, for handlers that block on I/O such as database calls.
+     *
+     * @return The shared executor.
+     */
+    @NotNull
+    public static Executor virtualThreads() {
+        return VirtualThreads.EXECUTOR;
+    }
+
+    /**
+     * Runs handlers on the server's main thread, so they can use the Bukkit API.
+     * Handlers invoked on the main thread already, e.g. expired handlers driven by {@link PaperInputRegistry#tickExpiry}, run immediately.
+     *
+     * @param plugin The plugin owning the scheduled tasks.
+     * @return The executor.
+     */
+    @NotNull
+    public static Executor mainThread(@NotNull Plugin plugin) {
+        Executor scheduler = plugin.getServer().getScheduler().getMainThreadExecutor(plugin);
+        return task -> {
+            if (plugin.getServer().isPrimaryThread()) {
+                task.run();
+            } else {
+                scheduler.execute(task);
+            }
+        };
+    }
+
+    static boolean isInline(Executor executor) {
+        return executor == INLINE;
+    }
+
+    // Created on first use, virtual threads need no shutdown
+    private static final class VirtualThreads {
+
+        private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Inputs Handler ", 0).factory());
+
+    }
+
+}
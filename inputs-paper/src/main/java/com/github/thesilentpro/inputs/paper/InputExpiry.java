@@ -0,0 +1,130 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.TimerWheel;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The deadlines of the inputs pending in a {@link PaperInputRegistry}, tracked in a {@link TimerWheel}.
+ * <p>
+ * The wheel is advanced by a ticker thread shared by every registry, started with the first timed input,
+ * or every server tick once {@link #tickOn(JavaPlugin, Runnable)} moved expiry to the main thread.
+ * The ticker thread only lives while a registry needs it, the last one {@link #stop() stopping} ends it.
+ * </p>
+ */
+final class InputExpiry {
+
+    // One server tick, finer resolution would only add wakeups nobody can observe
+    private static final long TICK_MILLIS = 50;
+
+    private final TimerWheel<PendingInput> wheel = new TimerWheel<>(TICK_MILLIS, TimeUnit.MILLISECONDS);
+    private volatile ScheduledFuture<?> ticker;
+    private volatile BukkitTask task;
+
+    /**
+     * Schedules an entry to expire. Expiry has to be {@link #start(Runnable) started} for it to ever expire.
+     *
+     * @param pending The entry.
+     * @param deadline The {@link System#nanoTime()} at which it expires.
+     */
+    void schedule(PendingInput pending, long deadline) {
+        wheel.schedule(pending, deadline);
+    }
+
+    void cancel(PendingInput pending) {
+        wheel.cancel(pending);
+    }
+
+    /**
+     * Removes every entry whose deadline passed.
+     *
+     * @param expired The callback receiving the expired entries.
+     */
+    void advance(Consumer<? super PendingInput> expired) {
+        wheel.advance(System.nanoTime(), expired);
+    }
+
+    boolean isRunning() {
+        return ticker != null || task != null;
+    }
+
+    /**
+     * Starts the shared ticker, unless expiry is driven already.
+     *
+     * @param tick Run on every tick, expires the due entries and anything else the registry tracks deadlines of.
+     */
+    synchronized void start(Runnable tick) {
+        if (ticker == null && task == null) {
+            ticker = Ticker.schedule(tick);
+        }
+    }
+
+    /**
+     * Drives expiry from the server tick instead of the shared ticker.
+     *
+     * @param plugin The plugin owning the tick task.
+     * @param tick Run on every tick.
+     */
+    synchronized void tickOn(JavaPlugin plugin, Runnable tick) {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, tick, 1L, 1L);
+    }
+
+    /**
+     * Stops driving expiry. Scheduled entries are kept and expire once expiry is started again.
+     */
+    synchronized void stop() {
+        if (ticker != null) {
+            Ticker.cancel(ticker);
+            ticker = null;
+        }
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    // Shared by every registry with a running ticker, the thread is created for the first and shut down after the last
+    private static final class Ticker {
+
+        private static ScheduledExecutorService executor;
+        private static int users;
+
+        static synchronized ScheduledFuture<?> schedule(Runnable tick) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "Inputs Expiry Ticker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            users++;
+            // Anything escaping a periodic task cancels it for good, and with it expiry for the registry
+            Runnable guarded = () -> {
+                try {
+                    tick.run();
+                } catch (Throwable t) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                }
+            };
+            return executor.scheduleAtFixedRate(guarded, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        static synchronized void cancel(ScheduledFuture<?> ticker) {
+            ticker.cancel(false);
+            if (--users == 0) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The limits of a {@link PaperInputRegistry} and the count of inputs pending in it.
+ * <p>
+ * A slot is {@link #reserve() reserved} before an input is linked, so the global limit is never overshot,
+ * and {@link #release() released} once the input is unlinked. Listeners are told whenever the count
+ * turns from or to zero, see {@link PaperInputListener#registerOnDemand}.
+ * </p>
+ */
+final class InputLimits {
+
+    // Entries linked into the store, reserved before linking
+    private final AtomicInteger pending = new AtomicInteger();
+    // Notified whenever the registry turns idle or busy
+    private final List<Runnable> occupancyListeners = new CopyOnWriteArrayList<>();
+    private volatile int maxPerPlayer;
+    private volatile LimitPolicy policy = LimitPolicy.DROP_OLDEST;
+    private volatile int maxPending;
+
+    void maxPerPlayer(int max, LimitPolicy policy) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + max);
+        }
+        this.policy = policy;
+        this.maxPerPlayer = max;
+    }
+
+    void maxPending(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + max);
+        }
+        this.maxPending = max;
+    }
+
+    int maxPerPlayer() {
+        return maxPerPlayer;
+    }
+
+    LimitPolicy policy() {
+        return policy;
+    }
+
+    int maxPending() {
+        return maxPending;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Reserves a slot for a new input within the global limit.
+     *
+     * @return {@code true} if the slot was reserved, {@code false} if the registry is full.
+     */
+    boolean reserve() {
+        int max = maxPending;
+        for (;;) {
+            int count = pending.get();
+            if (max > 0 && count >= max) {
+                return false;
+            }
+            if (pending.compareAndSet(count, count + 1)) {
+                if (count == 0) {
+                    occupancyChanged();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts a slot regardless of the global limit, for entries that are never rejected.
+     */
+    void occupy() {
+        if (pending.getAndIncrement() == 0) {
+            occupancyChanged();
+        }
+    }
+
+    void release() {
+        if (pending.decrementAndGet() == 0) {
+            occupancyChanged();
+        }
+    }
+
+    // Listeners read the count themselves, so transitions racing each other settle on the latest state.
+    // A failing listener, e.g. one scheduling a task after its plugin was disabled, must not abort whatever released the slot
+    private void occupancyChanged() {
+        for (Runnable listener : occupancyListeners) {
+            try {
+                listener.run();
+            } catch (Throwable t) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        }
+    }
+
+    void addOccupancyListener(Runnable listener) {
+        occupancyListeners.add(listener);
+    }
+
+    // Claims the oldest or newest input of a snapshot that nobody else claimed yet
+    @Nullable
+    static PendingInput victim(PlayerInputs state, boolean oldest) {
+        int size = state.size();
+        for (int i = 0; i < size; i++) {
+            PendingInput candidate = state.get(oldest ? i : size - 1 - i);
+            if (candidate.getSession() == null && candidate.claim()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    static boolean contains(PlayerInputs state, PendingInput pending) {
+        for (int i = 0; i < state.size(); i++) {
+            if (state.get(i) == pending) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.github.thesilentpro.inputs.paper;
+
+/**
+ * What a {@link PaperInputRegistry} does with a new input once a player already has as many pending inputs as allowed.
+ *
+ * @see PaperInputRegistry#maxPerPlayer(int, LimitPolicy)
+ */
+public enum LimitPolicy {
+
+    /**
+     * Drops the player's oldest pending input to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Rejects the new input, it is cancelled right away.
+     */
+    REJECT,
+
+    /**
+     * Puts the new input in the place of the player's most recently registered one.
+     */
+    REPLACE
+
+}
@@ -0,0 +1,52 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link PlayerInputStore} delegating to a {@link ConcurrentMap}.
+ */
+final class MapInputStore implements PlayerInputStore {
+
+    private final ConcurrentMap<UUID, PlayerInputs> map;
+
+    MapInputStore(ConcurrentMap<UUID, PlayerInputs> map) {
+        this.map = map;
+    }
+
+    @Nullable
+    @Override
+    public PlayerInputs get(@NotNull UUID id) {
+        return map.get(id);
+    }
+
+    @Override
+    public boolean putIfAbsent(@NotNull UUID id, @NotNull PlayerInputs inputs) {
+        return map.putIfAbsent(id, inputs) == null;
+    }
+
+    @Override
+    public boolean replace(@NotNull UUID id, @NotNull PlayerInputs expected, @NotNull PlayerInputs inputs) {
+        return map.replace(id, expected, inputs);
+    }
+
+    @Override
+    public boolean remove(@NotNull UUID id, @NotNull PlayerInputs expected) {
+        return map.remove(id, expected);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void forEach(@NotNull Consumer<? super PlayerInputs> action) {
+        map.values().forEach(action);
+    }
+
+}
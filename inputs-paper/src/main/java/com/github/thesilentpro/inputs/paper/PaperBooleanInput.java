@@ -0,0 +1,40 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.BooleanHandler;
+import com.github.thesilentpro.inputs.api.BooleanInput;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Paper-specific implementation of {@link BooleanInput}, handing parsed chat messages to its handler as a primitive {@code boolean}.
+ */
+public class PaperBooleanInput extends PaperPrimitiveInput<Boolean, PaperBooleanInput> implements BooleanInput<AsyncChatEvent, Component> {
+
+    private BooleanHandler<AsyncChatEvent> booleanHandler;
+
+    public PaperBooleanInput() {
+        super(Boolean.class);
+    }
+
+    @Override
+    public PaperBooleanInput thenBoolean(BooleanHandler<AsyncChatEvent> handler) {
+        this.booleanHandler = handler;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public BooleanHandler<AsyncChatEvent> getBooleanHandler() {
+        return booleanHandler;
+    }
+
+    @Override
+    public PaperBooleanInput await() {
+        return new PaperBooleanInput();
+    }
+
+    @Override
+    protected PaperBooleanInput self() {
+        return this;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.DoubleHandler;
+import com.github.thesilentpro.inputs.api.DoubleInput;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Paper-specific implementation of {@link DoubleInput}, handing parsed chat messages to its handler as a primitive {@code double}.
+ */
+public class PaperDoubleInput extends PaperPrimitiveInput<Double, PaperDoubleInput> implements DoubleInput<AsyncChatEvent, Component> {
+
+    // Set through the overload taking the event, a consumer set through the other one is adapted on request
+    private DoubleHandler<AsyncChatEvent> doubleHandler;
+
+    public PaperDoubleInput() {
+        super(Double.class);
+    }
+
+    @Override
+    public PaperDoubleInput thenDouble(DoubleConsumer handler) {
+        this.doubleHandler = null;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public PaperDoubleInput thenDouble(DoubleHandler<AsyncChatEvent> handler) {
+        this.doubleHandler = handler;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public DoubleHandler<AsyncChatEvent> getDoubleHandler() {
+        if (getPrimitiveHandler() instanceof DoubleConsumer consumer) {
+            return (value, event) -> consumer.accept(value);
+        }
+        return doubleHandler;
+    }
+
+    @Override
+    public PaperDoubleInput await() {
+        return new PaperDoubleInput();
+    }
+
+    @Override
+    protected PaperDoubleInput self() {
+        return this;
+    }
+
+}
@@ -2,13 +2,18 @@ package com.github.thesilentpro.inputs.paper;
 
 import com.github.thesilentpro.inputs.api.BaseInput;
 import com.github.thesilentpro.inputs.api.Input;
+import com.github.thesilentpro.inputs.api.InputHandle;
 import com.github.thesilentpro.inputs.api.InputRegistry;
+import com.github.thesilentpro.inputs.api.RateLimit;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import net.kyori.adventure.text.Component;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -38,16 +43,16 @@ public class PaperInput<T> extends BaseInput<T, AsyncChatEvent, Component> {
         return await(Number.class);
     }
 
-    public static PaperInput<Integer> awaitInteger() {
-        return await(Integer.class);
+    public static PaperIntInput awaitInteger() {
+        return new PaperIntInput();
     }
 
-    public static PaperInput<Long> awaitLong() {
-        return await(Long.class);
+    public static PaperLongInput awaitLong() {
+        return new PaperLongInput();
     }
 
-    public static PaperInput<Double> awaitDouble() {
-        return await(Double.class);
+    public static PaperDoubleInput awaitDouble() {
+        return new PaperDoubleInput();
     }
 
     public static PaperInput<Float> awaitFloat() {
@@ -58,8 +63,8 @@ public class PaperInput<T> extends BaseInput<T, AsyncChatEvent, Component> {
         return await(Byte.class);
     }
 
-    public static PaperInput<Boolean> awaitBoolean() {
-        return await(Boolean.class);
+    public static PaperBooleanInput awaitBoolean() {
+        return new PaperBooleanInput();
     }
 
     @Override
@@ -132,6 +137,66 @@ public class PaperInput<T> extends BaseInput<T, AsyncChatEvent, Component> {
         return this;
     }
 
+    @Override
+    public PaperInput<T> silent() {
+        super.silent();
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> retries(int retries) {
+        super.retries(retries);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> exhausted(Consumer<Component> handler) {
+        super.exhausted(handler);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> exhausted(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.exhausted(handler);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> throttled(Consumer<Component> handler) {
+        super.throttled(handler);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> throttled(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.throttled(handler);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> rateLimit(RateLimit limit) {
+        super.rateLimit(limit);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> cancelled(Runnable handler) {
+        super.cancelled(handler);
+        return this;
+    }
+
+    @Override
+    public PaperInput<T> tag(String tag) {
+        super.tag(tag);
+        return this;
+    }
+
     @Override
     public PaperInput<T> register(UUID id, InputRegistry<Component, AsyncChatEvent> registry) {
         super.register(id, registry);
@@ -146,6 +211,33 @@ public class PaperInput<T> extends BaseInput<T, AsyncChatEvent, Component> {
         return this;
     }
 
+    /**
+     * Registers this input in the Paper registry and returns a handle to cancel it with.
+     *
+     * @see #submit(UUID, InputRegistry)
+     */
+    public InputHandle submit(UUID id) {
+        return submit(id, PaperInputRegistry.INSTANCE);
+    }
+
+    /**
+     * Registers this input in the Paper registry and returns a future completed once it is consumed.
+     *
+     * @see #future(UUID, InputRegistry)
+     */
+    public CompletableFuture<T> future(UUID id) {
+        return future(id, PaperInputRegistry.INSTANCE);
+    }
+
+    /**
+     * Registers this input in the Paper registry and blocks until it is consumed, meant for virtual threads.
+     *
+     * @see #awaitValue(UUID, InputRegistry)
+     */
+    public T awaitValue(UUID id) throws InterruptedException, TimeoutException {
+        return awaitValue(id, PaperInputRegistry.INSTANCE);
+    }
+
     /**
      * Convenience method: await, set expiration, attach handler, and register in one chain.
      */
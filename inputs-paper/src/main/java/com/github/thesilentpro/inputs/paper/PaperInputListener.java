@@ -3,12 +3,19 @@ package com.github.thesilentpro.inputs.paper;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public class PaperInputListener implements Listener {
 
     private final PaperInputRegistry registry;
+    private volatile JavaPlugin plugin;
+    // Only touched on the main thread
+    private boolean registered;
+    private boolean syncScheduled;
 
     public PaperInputListener(PaperInputRegistry registry) {
         this.registry = registry;
@@ -23,6 +30,58 @@ public class PaperInputListener implements Listener {
         return this;
     }
 
+    /**
+     * Registers this listener only while the registry has pending inputs.
+     * It leaves the handler lists once the last input is gone and joins them again when the next one is registered,
+     * so chat costs nothing while nobody has a prompt open.
+     * <p>
+     * Handler lists are only changed on the main thread. An input registered from another thread while the registry
+     * is idle is listened for from the next tick on, responses sent before that are not seen.
+     * </p>
+     *
+     * @param plugin The plugin owning the listener, has to be called on the main thread.
+     * @return This listener.
+     */
+    public PaperInputListener registerOnDemand(JavaPlugin plugin) {
+        this.plugin = plugin;
+        registry.addOccupancyListener(this::sync);
+        sync();
+        return this;
+    }
+
+    // Called on whichever thread turned the registry idle or busy, the change itself always happens on the main thread
+    private void sync() {
+        JavaPlugin plugin = this.plugin;
+        if (plugin.getServer().isPrimaryThread()) {
+            apply();
+            return;
+        }
+        synchronized (this) {
+            if (syncScheduled) {
+                return;
+            }
+            syncScheduled = true;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            synchronized (this) {
+                syncScheduled = false;
+            }
+            apply();
+        });
+    }
+
+    // Follows the current count rather than the transition that triggered it, so racing transitions cannot leave it wrong
+    private void apply() {
+        boolean pending = registry.pending() > 0;
+        if (pending && !registered) {
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+            registered = true;
+        } else if (!pending && registered) {
+            HandlerList.unregisterAll(this);
+            registered = false;
+        }
+    }
+
     // handlers might want to cancel the event, therefor MONITOR is not used.
     // HIGHEST to allow other handlers to cancel the event
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -30,4 +89,15 @@ public class PaperInputListener implements Listener {
         registry.process(event.getPlayer().getUniqueId(), event.message(), event);
     }
 
+    // Inputs of players who left can never be answered, evict them instead of keeping them until they expire, if ever
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        registry.evict(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onKick(PlayerKickEvent event) {
+        registry.evict(event.getPlayer().getUniqueId());
+    }
+
 }
\ No newline at end of file
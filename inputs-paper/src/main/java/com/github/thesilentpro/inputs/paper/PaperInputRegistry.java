@@ -1,79 +1,969 @@
 package com.github.thesilentpro.inputs.paper;
 
-import com.github.thesilentpro.inputs.api.Input;
-import com.github.thesilentpro.inputs.api.InputParserRegistry;
-import com.github.thesilentpro.inputs.api.InputRegistry;
+import com.github.thesilentpro.inputs.api.*;
 import com.github.thesilentpro.inputs.paper.parser.PaperInputParserRegistry;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import net.kyori.adventure.text.Component;
+import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
-import java.util.Deque;
-import java.util.Map;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class PaperInputRegistry implements InputRegistry<Component,AsyncChatEvent> {
+public class PaperInputRegistry implements InputRegistry<Component,AsyncChatEvent>, AutoCloseable {
 
     public static final PaperInputRegistry INSTANCE = new PaperInputRegistry(PaperInputParserRegistry.INSTANCE, new ConcurrentHashMap<>());
 
+    private static final char TAG_SEPARATOR = ':';
+
+    static final ThreadLocal<ParseResult> RESULT = ThreadLocal.withInitial(ParseResult::new);
+
     private final InputParserRegistry<Component> parserRegistry;
-    private final Map<UUID, Deque<Input<?,AsyncChatEvent,Component>>> inputs;
+    private final PlayerInputStore inputs;
+    private final InputExpiry expiry;
+    private final InputLimits limits = new InputLimits();
+    private final PlayerFilter players = new PlayerFilter();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final Broadcasts broadcasts = new Broadcasts();
+
+    private volatile boolean fallbackChains;
+    private volatile boolean tagRouting;
+    private volatile boolean silenceAll;
+    private volatile SilenceMode silenceMode = SilenceMode.CANCEL;
+    private volatile Executor executor;
+    private volatile Consumer<? super PendingInput> evictionHandler;
+    private TickBudgetExecutor tickDrain;
 
-    public PaperInputRegistry(InputParserRegistry<Component> parserRegistry, Map<UUID, Deque<Input<?,AsyncChatEvent,Component>>> map) {
+    public PaperInputRegistry(InputParserRegistry<Component> parserRegistry, ConcurrentMap<UUID, PlayerInputs> map) {
+        this(parserRegistry, PlayerInputStore.of(map));
+    }
+
+    public PaperInputRegistry(InputParserRegistry<Component> parserRegistry, PlayerInputStore store) {
         this.parserRegistry = parserRegistry;
-        this.inputs = map;
+        this.inputs = store;
+        this.expiry = new InputExpiry();
+    }
+
+    /**
+     * Creates a registry backed by a {@link PlayerInputStore#compact() compact store},
+     * keyed by the two longs of each player's {@link UUID} instead of map entries.
+     *
+     * @param parserRegistry The parsers used to process inputs.
+     * @return The registry.
+     */
+    public static PaperInputRegistry compact(InputParserRegistry<Component> parserRegistry) {
+        return new PaperInputRegistry(parserRegistry, PlayerInputStore.compact());
     }
 
+    /**
+     * {@inheritDoc}
+     * The returned entry is the handle, cancelling it takes no search through the player's inputs.
+     * An input rejected by a {@link #maxPerPlayer(int, LimitPolicy) limit} is cancelled right away, its handle is never pending.
+     */
     @Override
-    public <T> void register(UUID id, Input<T,AsyncChatEvent,Component> input) {
-        inputs.computeIfAbsent(id, k -> new ConcurrentLinkedDeque<>()).add(input);
+    public PendingInput register(UUID id, CompiledInput<AsyncChatEvent,Component> input) {
+        PendingInput pending = new PendingInput(this, id, input);
+        if (!limits.reserve()) {
+            reject(pending);
+            return pending;
+        }
+        PendingInput displaced = link(pending);
+        if (displaced != null) {
+            displace(displaced);
+        }
+        if (pending.isClaimed()) {
+            // Rejected by the per-player limit
+            reject(pending);
+            return pending;
+        }
+
+        if (input.expires()) {
+            schedule(pending, input.getDeadline());
+        }
+
+        CompletableFuture<?> future = input.getHandlers().getFuture();
+        if (future != null) {
+            // A cancelled future gives up its input, it must not consume the next response
+            future.whenComplete((value, error) -> {
+                if (future.isCancelled()) {
+                    cancel(pending, true);
+                }
+            });
+        }
+        return pending;
     }
 
+    /**
+     * {@inheritDoc}
+     * Handlers of the conversation run one at a time, see {@link ConversationSession#execute(Runnable)}.
+     * A conversation counts towards the limits of the registry and is never displaced by them,
+     * a conversation the limits reject is never begun.
+     *
+     * @throws IllegalStateException If the registry is at its {@link #maxPending(int) limit}, or the player is at its
+     *         {@link #maxPerPlayer(int, LimitPolicy) limit} under {@link LimitPolicy#REJECT}.
+     */
+    @Override
+    public ConversationSession<AsyncChatEvent,Component> start(UUID id, Conversation<AsyncChatEvent,Component> conversation) {
+        ConversationSession<AsyncChatEvent,Component> session = conversation.newSession(id);
+        PendingInput pending = new PendingInput(this, id, session);
+        if (!limits.reserve()) {
+            throw new IllegalStateException("The registry is at its limit of " + limits.maxPending() + " pending inputs");
+        }
+        PendingInput displaced = link(pending);
+        if (displaced != null) {
+            displace(displaced);
+        }
+        if (pending.isClaimed()) {
+            // Rejected by the per-player limit
+            throw new IllegalStateException("Player " + id + " is at the limit of " + limits.maxPerPlayer() + " pending inputs");
+        }
+        // Responses arriving from here on queue up in the session until the first prompt returns
+        Conversations.scheduleStep(this, pending);
+        session.begin();
+        return session;
+    }
+
+    /**
+     * {@inheritDoc}
+     * With {@link #tagRouting(boolean) tag routing}, a message of the form {@code tag: response} goes to the input
+     * registered under the tag, if the player has one. Its parser is given the text without the prefix,
+     * its handlers receive the message as it was sent.
+     */
     @Override
     public void process(@NotNull UUID id, @NotNull Component input, @Nullable AsyncChatEvent event) {
-        Deque<Input<?,AsyncChatEvent,Component>> registeredInputs = inputs.get(id);
-        if (registeredInputs == null) {
+        // Most messages come from players without prompts, they are turned away before any lookup
+        PlayerInputs state = players.mightContain(id) ? inputs.get(id) : null;
+        if (state == null) {
+            if (!broadcasts.isEmpty()) {
+                answer(id, ChatInput.of(input), event);
+            }
+            return;
+        }
+        // Serialize the message at most once for every parser that looks at it
+        ChatInput message = ChatInput.of(input);
+        if (tagRouting) {
+            String text = message.text();
+            int separator = text.indexOf(TAG_SEPARATOR);
+            if (separator > 0) {
+                String tag = text.substring(0, separator);
+                if (state.get(tag) != null) {
+                    process(id, tag, message.slice(separator + 1), event);
+                    return;
+                }
+            }
+        }
+        if (admit(id, state.first(), message, event)) {
+            deliver(id, null, state, message, event);
+        }
+    }
+
+    /**
+     * Processes a response meant for the input registered under a tag, e.g. from a search field of a GUI.
+     * Does nothing if the player has no input registered under the tag.
+     *
+     * @param id The unique identifier of the player.
+     * @param tag The tag of the input.
+     * @param input The response.
+     * @param event The event the response arrived with.
+     */
+    public void process(@NotNull UUID id, @NotNull String tag, @NotNull Component input, @Nullable AsyncChatEvent event) {
+        if (players.mightContain(id)) {
+            process(id, tag, ChatInput.of(input), event);
+        }
+    }
+
+    private void process(UUID id, String tag, ChatInput message, @Nullable AsyncChatEvent event) {
+        PlayerInputs state = inputs.get(id);
+        PendingInput tagged = state == null ? null : state.get(tag);
+        if (tagged != null && admit(id, tagged, message, event)) {
+            deliver(id, tag, state, message, event);
+        }
+    }
+
+    /**
+     * Sets whether messages prefixed with a tag, e.g. {@code shop: 5}, are routed to the input registered under that tag
+     * instead of the oldest pending input.
+     *
+     * @param enabled {@code true} to route by prefix.
+     * @return This registry.
+     */
+    public PaperInputRegistry tagRouting(boolean enabled) {
+        this.tagRouting = enabled;
+        return this;
+    }
+
+    // Offers a message of a player without pending inputs to the open broadcasts, the first one it answers takes it
+    private void answer(UUID id, ChatInput input, @Nullable AsyncChatEvent event) {
+        ParseResult result = RESULT.get();
+        try {
+            for (Broadcast<?> broadcast : broadcasts.snapshot()) {
+                int slot = broadcast.pendingSlot(id);
+                CompiledInput<AsyncChatEvent,Component> template = broadcast.getTemplate();
+                if (slot < 0 || template.hasExpired()) {
+                    // Expired ones are closed by the next expiry tick
+                    continue;
+                }
+                if (!parse(broadcast.getParser(), input, result) || !broadcast.answer(slot, result.get())) {
+                    result.reset();
+                    continue;
+                }
+                if (event != null && (silenceAll || template.isSilent())) {
+                    silence(event);
+                }
+                InputHandlers<AsyncChatEvent,Component> handlers = template.getHandlers();
+                Executor executor = executor(template);
+                if (executor == null) {
+                    handlers.success(result, event);
+                } else {
+                    ParseResult value = result.copy();
+                    executor.execute(() -> handlers.success(value, event));
+                }
+                result.reset();
+                return;
+            }
+        } finally {
+            result.source(null);
+        }
+    }
+
+    // Hands a response to the player's oldest input, or the one registered under the tag
+    private void deliver(UUID id, @Nullable String tag, PlayerInputs state, ChatInput input, @Nullable AsyncChatEvent event) {
+        PendingInput target = tag == null ? state.first() : state.get(tag);
+        if (target != null && target.getSession() == null && target.getInput().getRetries() > 0 && !target.isClaimed()) {
+            handle(target, input, event, true);
+            return;
+        }
+        PendingInput pending = tag == null ? poll(id) : poll(id, tag);
+        if (pending != null) {
+            handle(pending, input, event, false);
+        }
+    }
+
+    // An input with retries is handled in place and only claimed once its fate is decided,
+    // any other input arrives here claimed and unlinked already
+    private void handle(PendingInput pending, ChatInput message, @Nullable AsyncChatEvent event, boolean inPlace) {
+        if (event != null && (silenceAll || pending.getInput() != null && pending.getInput().isSilent())) {
+            // Decided as soon as the message is taken, before anything is parsed, and long before Paper renders it
+            silence(event);
+        }
+        if (pending.getSession() != null) {
+            Conversations.converse(this, pending, message, event);
             return;
         }
+        if (!inPlace) {
+            expiry.cancel(pending);
+        }
+        CompiledInput<AsyncChatEvent,Component> registeredInput = pending.getInput();
+        InputHandlers<AsyncChatEvent,Component> handlers = registeredInput.getHandlers();
+        Executor executor = executor(registeredInput);
+        Component input = message.component();
+
+        ParseResult result = RESULT.get();
+        try {
+            // Expired inputs are never parsed
+            if (registeredInput.hasExpired()) {
+                if (!settle(pending, inPlace)) {
+                    return;
+                }
+                if (executor == null) {
+                    handlers.expired(input, event);
+                } else {
+                    executor.execute(() -> handlers.expired(input, event));
+                }
+            } else {
+                InputParser<Component,?> parser = parser(registeredInput.getType());
+                if (parser == null) {
+                    return;
+                }
+                if (parse(parser, message, result)) {
+                    if (!settle(pending, inPlace)) {
+                        result.reset();
+                        return;
+                    }
+                    if (executor == null) {
+                        handlers.success(result, event);
+                    } else {
+                        // The per-thread result is reused by the next message, the handler gets its own copy
+                        ParseResult value = result.copy();
+                        executor.execute(() -> handlers.success(value, event));
+                    }
+                    result.reset();
+                } else if (!inPlace) {
+                    if (executor == null) {
+                        handlers.mismatch(input, event);
+                    } else {
+                        executor.execute(() -> handlers.mismatch(input, event));
+                    }
+                } else {
+                    int attempts = pending.fail();
+                    int retries = registeredInput.getRetries();
+                    if (attempts <= retries) {
+                        if (executor == null) {
+                            handlers.retry(input, event);
+                        } else {
+                            executor.execute(() -> handlers.retry(input, event));
+                        }
+                    } else if (attempts == retries + 1 && settle(pending, true)) {
+                        // Only the last attempt settles the input, attempts racing past it are dropped
+                        if (executor == null) {
+                            handlers.exhausted(input, event);
+                        } else {
+                            executor.execute(() -> handlers.exhausted(input, event));
+                        }
+                    }
+                }
+            }
+        } finally {
+            result.source(null);
+        }
+    }
+
+    // Takes an input handled in place, unless another response or the expiry wheel got to it first
+    private boolean settle(PendingInput pending, boolean inPlace) {
+        if (!inPlace) {
+            return true;
+        }
+        if (!pending.claim()) {
+            return false;
+        }
+        unlink(pending);
+        expiry.cancel(pending);
+        return true;
+    }
+
+    /**
+     * Sets the executor handlers run on unless their input sets its own, see {@link InputExecutors}.
+     * Parsing and expiry stay on the thread the input arrives or expires on.
+     *
+     * @param executor The executor, or {@code null} to run handlers inline.
+     * @return This registry.
+     */
+    public PaperInputRegistry executor(@Nullable Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Runs handlers on the main thread in batches, drained once per tick within a time budget, see {@link TickBudgetExecutor}.
+     * Handler work of many inputs completing at once is spread over several ticks instead of scheduling a task each.
+     * This replaces the registry's {@link #executor(Executor) executor}, inputs with their own executor keep using it.
+     *
+     * @param plugin The plugin owning the drain task.
+     * @param budget The time draining may take per tick.
+     * @return This registry.
+     */
+    public synchronized PaperInputRegistry tickDrain(JavaPlugin plugin, Duration budget) {
+        // Reused when called again, so tasks queued so far are not stranded
+        tickDrain = tickDrain == null ? new TickBudgetExecutor(budget) : tickDrain.budget(budget);
+        this.executor = tickDrain.start(plugin);
+        return this;
+    }
+
+    /**
+     * Limits how fast the responses of each player are processed, before anything is parsed or any handler runs.
+     * Inputs with a {@link Input#rateLimit(RateLimit) limit of their own} use theirs instead.
+     * Each player has one bucket per limit, shared by all of their inputs under it, so re-registering an input does not refill it.
+     * Responses {@link RateLimit.Shed#DELAY delayed} by a limit are processed on the executor handlers run on,
+     * or on the common pool if they run inline, and keep the event they arrived with. They are only handed to the input
+     * they arrived for, and dropped as throttled if that input was answered or removed meanwhile.
+     *
+     * @param limit The limit, or {@code null} for none.
+     * @return This registry.
+     */
+    public PaperInputRegistry rateLimit(@Nullable RateLimit limit) {
+        rateLimiter.limit(limit);
+        return this;
+    }
+
+    /**
+     * Sets the handler run for responses dropped by a rate limit, unless the input has a throttled handler of its own.
+     *
+     * @param handler The handler, receiving the player's unique identifier and the dropped response, or {@code null} for none.
+     * @return This registry.
+     */
+    public PaperInputRegistry throttledHandler(@Nullable BiConsumer<UUID, Component> handler) {
+        rateLimiter.throttledHandler(handler);
+        return this;
+    }
+
+    /**
+     * Sets whether every chat message consumed by an input is kept from being broadcast, not only those of
+     * {@link Input#silent() silent} inputs. Answers like amounts or passwords then reach neither other players nor the renderer.
+     *
+     * @param enabled {@code true} to silence all consumed messages.
+     * @return This registry.
+     */
+    public PaperInputRegistry silenceAll(boolean enabled) {
+        this.silenceAll = enabled;
+        return this;
+    }
+
+    /**
+     * Sets how consumed messages are silenced.
+     *
+     * @param mode The mode, {@link SilenceMode#CANCEL} by default.
+     * @return This registry.
+     */
+    public PaperInputRegistry silenceMode(@NotNull SilenceMode mode) {
+        this.silenceMode = mode;
+        return this;
+    }
+
+    /**
+     * Sets whether inputs are parsed by every parser registered for their type instead of only the first one.
+     * The parsers are tried as a {@link ParserChain}, which learns which of them players use most and tries it first.
+     *
+     * @param enabled {@code true} to parse with {@link InputParserRegistry#findChain(Class)}.
+     * @return This registry.
+     */
+    public PaperInputRegistry fallbackChains(boolean enabled) {
+        this.fallbackChains = enabled;
+        return this;
+    }
+
+    /**
+     * Evicts every input whose expiration time has passed and fires its expired handler.
+     * Handlers of inputs expired this way receive {@code null} for both the input and the event.
+     * <p>
+     * This is called automatically by the shared expiry thread, or every server tick after {@link #tickExpiry(JavaPlugin)}.
+     * </p>
+     */
+    public void expire() {
+        expiry.advance(this::expire);
+        for (Broadcast<?> broadcast : broadcasts.snapshot()) {
+            if (!broadcast.getTemplate().hasExpired()) {
+                continue;
+            }
+            try {
+                if (close(broadcast)) {
+                    InputHandlers<AsyncChatEvent,Component> handlers = broadcast.getTemplate().getHandlers();
+                    Executor executor = executor(broadcast.getTemplate());
+                    if (executor == null) {
+                        handlers.expired(null, null);
+                    } else {
+                        executor.execute(() -> handlers.expired(null, null));
+                    }
+                }
+            } catch (Throwable t) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        }
+    }
+
+    /**
+     * Drives expiry from the server tick instead of the shared expiry thread, so expired handlers run on the main thread.
+     *
+     * @param plugin The plugin owning the tick task.
+     * @return This registry.
+     */
+    public PaperInputRegistry tickExpiry(JavaPlugin plugin) {
+        expiry.tickOn(plugin, this::expire);
+        return this;
+    }
+
+    /**
+     * Stops the background work of this registry, call it when the plugin using it is disabled.
+     * The expiry ticker and the tick drain are stopped, the shared expiry thread ends once no registry uses it anymore.
+     * <p>
+     * Pending inputs stay registered, registering a timed input starts the expiry ticker again.
+     * Handlers queued on the {@link #tickDrain(JavaPlugin, Duration) tick drain} are kept until it is started again,
+     * handlers submitted after closing run inline.
+     * </p>
+     */
+    @Override
+    public synchronized void close() {
+        expiry.stop();
+        if (tickDrain != null) {
+            tickDrain.stop();
+            if (executor == tickDrain) {
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Asks many players the same question at once, e.g. a trivia round, sharing one compiled input between all of them.
+     * A participant's message is offered to the broadcast when they have no input of their own pending,
+     * the first message that parses is their answer and runs the success handler. Other messages stay regular chat.
+     * <p>
+     * The broadcast closes once the input expires, running its expired handler once with {@code null} arguments, or when closed.
+     * </p>
+     *
+     * @param input The question, its success handler runs for every answer.
+     * @param participants The players asked.
+     * @return The broadcast.
+     * @throws IllegalArgumentException If there is no parser for the input's type.
+     */
+    public <T> Broadcast<T> broadcast(@NotNull Input<T,AsyncChatEvent,Component> input, @NotNull Collection<UUID> participants) {
+        return broadcast(input, participants, false);
+    }
+
+    /**
+     * Asks many players the same question at once, like {@link #broadcast(Input, Collection)},
+     * optionally counting the answers, e.g. for a vote.
+     *
+     * @param input The question, its success handler runs for every answer.
+     * @param participants The players asked.
+     * @param tally {@code true} to count how often each value is answered, see {@link Broadcast#getResults()}.
+     * @return The broadcast.
+     * @throws IllegalArgumentException If there is no parser for the input's type.
+     */
+    public <T> Broadcast<T> broadcast(@NotNull Input<T,AsyncChatEvent,Component> input, @NotNull Collection<UUID> participants, boolean tally) {
+        CompiledInput<AsyncChatEvent,Component> template = input.compile();
+        // Resolved once, every message offered to the broadcast is parsed with it
+        InputParser<Component,?> parser = parser(template.getType());
+        if (parser == null) {
+            throw new IllegalArgumentException("No parser found for input type: " + template.getType().getName());
+        }
+        Broadcast<T> broadcast = new Broadcast<>(this, template, parser, PlayerSet.of(participants), tally);
+        broadcasts.add(broadcast);
+        limits.occupy();
+        if (template.expires() && !expiry.isRunning()) {
+            expiry.start(this::expire);
+        }
+        return broadcast;
+    }
+
+    boolean close(Broadcast<?> broadcast) {
+        if (!broadcasts.remove(broadcast)) {
+            return false;
+        }
+        release();
+        return true;
+    }
+
+    /**
+     * Limits the number of inputs a single player can have pending.
+     *
+     * @param max The maximum number of inputs, or {@code 0} for no limit.
+     * @param policy What to do with an input registered while the player is at the limit.
+     * @return This registry.
+     */
+    public PaperInputRegistry maxPerPlayer(int max, @NotNull LimitPolicy policy) {
+        limits.maxPerPlayer(max, policy);
+        return this;
+    }
+
+    /**
+     * Limits the number of inputs pending in this registry across all players, bounding its memory whatever plugins register.
+     * Inputs registered while the registry is full are rejected and cancelled right away.
+     *
+     * @param max The maximum number of inputs, or {@code 0} for no limit.
+     * @return This registry.
+     */
+    public PaperInputRegistry maxPending(int max) {
+        limits.maxPending(max);
+        return this;
+    }
+
+    /**
+     * Gets the number of inputs pending across all players, conversations included.
+     * An open broadcast counts as a single input.
+     *
+     * @return The number of pending inputs.
+     */
+    public int pending() {
+        return limits.pending();
+    }
+
+    /**
+     * Sets the handler run for each input dropped by {@link #evict(UUID)}, e.g. to log prompts players left unanswered.
+     *
+     * @param handler The handler, or {@code null} for none.
+     * @return This registry.
+     */
+    public PaperInputRegistry evictionHandler(@Nullable Consumer<? super PendingInput> handler) {
+        this.evictionHandler = handler;
+        return this;
+    }
+
+    /**
+     * Drops every pending input of a player who left the server. Called by {@link PaperInputListener} on quit and kick.
+     * Unlike {@link #cancelAll(UUID)}, cancelled handlers do not run, as there is nobody left to tell.
+     * Futures of the inputs are still cancelled, so nothing waits on them forever.
+     *
+     * @param id The player's unique identifier.
+     * @return The number of inputs dropped.
+     */
+    public int evict(@NotNull UUID id) {
+        rateLimiter.forget(id);
+        PlayerInputs state = inputs.get(id);
+        if (state == null) {
+            return 0;
+        }
+        Consumer<? super PendingInput> handler = evictionHandler;
+        int evicted = 0;
+        for (int i = 0; i < state.size(); i++) {
+            PendingInput pending = state.get(i);
+            if (cancel(pending, false)) {
+                evicted++;
+                cancelFuture(pending);
+                if (handler != null) {
+                    try {
+                        handler.accept(pending);
+                    } catch (Throwable t) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Cancels every pending input of a player, including a running conversation,
+     * e.g. when the menu that asked for them is closed.
+     *
+     * @param id The player's unique identifier.
+     * @return The number of inputs cancelled.
+     * @see InputHandle#cancel()
+     */
+    public int cancelAll(@NotNull UUID id) {
+        return cancelIf(id, pending -> true);
+    }
+
+    /**
+     * Cancels the pending inputs of a player matching a filter, e.g. those of a single menu by their tag.
+     *
+     * @param id The player's unique identifier.
+     * @param filter The filter.
+     * @return The number of inputs cancelled.
+     */
+    public int cancelIf(@NotNull UUID id, @NotNull Predicate<? super PendingInput> filter) {
+        PlayerInputs state = inputs.get(id);
+        return state == null ? 0 : cancelIf(state, filter);
+    }
+
+    /**
+     * Cancels the pending inputs of every player matching a filter.
+     *
+     * @param filter The filter.
+     * @return The number of inputs cancelled.
+     */
+    public int cancelIf(@NotNull Predicate<? super PendingInput> filter) {
+        int[] cancelled = new int[1];
+        inputs.forEach(state -> cancelled[0] += cancelIf(state, filter));
+        return cancelled[0];
+    }
+
+    // Works on the snapshot it is given, inputs registered meanwhile are left alone
+    private int cancelIf(PlayerInputs state, Predicate<? super PendingInput> filter) {
+        int cancelled = 0;
+        for (int i = 0; i < state.size(); i++) {
+            PendingInput pending = state.get(i);
+            if (!pending.isClaimed() && filter.test(pending) && cancel(pending, true)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    void schedule(PendingInput pending, long deadline) {
+        if (!expiry.isRunning()) {
+            expiry.start(this::expire);
+        }
+        expiry.schedule(pending, deadline);
+    }
+
+    private void expire(PendingInput pending) {
+        // A failing handler, or an occupancy listener failing as the entry is unlinked,
+        // must not stop the ticker from expiring everything else
+        try {
+            if (pending.getSession() != null) {
+                Conversations.expire(this, pending);
+                return;
+            }
+            if (!pending.claim()) {
+                // Already consumed by a chat message
+                return;
+            }
+            unlink(pending);
+
+            InputHandlers<AsyncChatEvent,Component> handlers = pending.getInput().getHandlers();
+            if (handlers.hasExpiredHandler()) {
+                Executor executor = executor(pending.getInput());
+                if (executor == null) {
+                    handlers.expired(null, null);
+                } else {
+                    executor.execute(() -> handlers.expired(null, null));
+                }
+            }
+        } catch (Throwable t) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        }
+    }
 
-        if (!registeredInputs.isEmpty()) {
-            // Poll the first input in the queue
-            Input<?,AsyncChatEvent,Component> registeredInput = registeredInputs.pollFirst();
-            if (registeredInput != null) {
-                //noinspection CodeBlock2Expr
-                parserRegistry.find(registeredInput.getRequiredInputType())
-                        .ifPresentOrElse(parser -> {
-                            parser.parse(input).ifPresentOrElse(parsedInput -> {
-                                if (registeredInput.hasExpired() && !registeredInput.shouldIgnoreExpired()) {
-                                    if (registeredInput.getExpiredHandler() != null) {
-                                        registeredInput.getExpiredHandler().accept(input, event);
-                                    }
-                                    return;
-                                }
+    // Null when handlers run inline, which needs neither a task nor a copy of the result
+    @Nullable
+    private Executor executor(@Nullable CompiledInput<AsyncChatEvent,Component> input) {
+        Executor executor = input != null && input.getExecutor() != null ? input.getExecutor() : this.executor;
+        return executor == null || InputExecutors.isInline(executor) ? null : executor;
+    }
 
-                                if (registeredInput.getInputHandler() != null) {
-                                    //noinspection unchecked
-                                    BiConsumer<Object,AsyncChatEvent> handler = (BiConsumer<Object,AsyncChatEvent>) registeredInput.getInputHandler();
-                                    handler.accept(parsedInput, event);
-                                }
-                            }, () -> {
-                                if (registeredInput.getMismatchHandler() != null) {
-                                    registeredInput.getMismatchHandler().accept(input, event);
-                                }
-                            });
-                        }, () -> onInvalidParser(registeredInput.getRequiredInputType()));
+    // Claims and unlinks an input in place, notifying its cancelled handler and future if asked to
+    boolean cancel(PendingInput pending, boolean notify) {
+        if (!pending.claim()) {
+            return false;
+        }
+        unlink(pending);
+        expiry.cancel(pending);
+        if (notify && pending.getInput() != null) {
+            try {
+                pending.getInput().getHandlers().cancelled();
+            } catch (Throwable t) {
+                // A failing handler must not stop the caller from cancelling everything else
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
             }
         }
+        return true;
+    }
+
+    // Claims the oldest input of a player, helping to unlink inputs another thread claimed but has not unlinked yet.
+    // A conversation is returned unclaimed, it keeps the slot until it ends.
+    @Nullable
+    private PendingInput poll(UUID id) {
+        for (;;) {
+            PlayerInputs state = inputs.get(id);
+            if (state == null) {
+                return null;
+            }
+            PendingInput first = state.first();
+            if (first.getSession() != null && !first.isClaimed()) {
+                return first;
+            }
+            boolean won = first.claim();
+            unlink(first);
+            if (won) {
+                return first;
+            }
+        }
+    }
+
+    // Claims the input of a player registered under a tag
+    @Nullable
+    private PendingInput poll(UUID id, String tag) {
+        for (;;) {
+            PlayerInputs state = inputs.get(id);
+            PendingInput tagged = state == null ? null : state.get(tag);
+            if (tagged == null) {
+                return null;
+            }
+            boolean won = tagged.claim();
+            unlink(tagged);
+            if (won) {
+                return tagged;
+            }
+        }
+    }
+
+    // Snapshots are swapped with conditional replace/remove, so concurrent changes to a player are retried, never lost
+
+    // Links an entry, reserved by the caller, in the player's snapshot. Returns the input it took the place of,
+    // of the same tag or displaced by the per-player limit, claimed so it never runs.
+    // An input rejected by the limit is claimed instead of linked and its reservation released.
+    @Nullable
+    private PendingInput link(PendingInput pending) {
+        UUID id = pending.getId();
+        String tag = pending.getTag();
+        PendingInput replaced = null;
+        for (;;) {
+            PlayerInputs state = inputs.get(id);
+            if (state == null) {
+                players.add(id);
+                if (inputs.putIfAbsent(id, pending)) {
+                    return replaced;
+                }
+                players.remove(id);
+                continue;
+            }
+            PendingInput old = tag == null ? null : state.get(tag);
+            // An input someone else claimed is on its way out, the new one queues up behind it
+            if (old != null && old != replaced && !old.claim()) {
+                old = null;
+            }
+            int max = limits.maxPerPlayer();
+            boolean dropped = false;
+            if (old == null && max > 0 && state.size() >= max) {
+                LimitPolicy policy = limits.policy();
+                if (policy == LimitPolicy.REJECT) {
+                    pending.claim();
+                    release();
+                    return replaced;
+                }
+                // A victim claimed by an earlier attempt is reused while it is still linked
+                old = replaced != null && InputLimits.contains(state, replaced) ? replaced : InputLimits.victim(state, policy == LimitPolicy.DROP_OLDEST);
+                dropped = policy == LimitPolicy.DROP_OLDEST;
+            }
+            PlayerInputs updated;
+            if (old != null) {
+                if (replaced != null && replaced != old) {
+                    displace(replaced);
+                }
+                replaced = old;
+                // Dropping the oldest still queues the new input last, a replacement takes over the position
+                PlayerInputs remaining = dropped ? state.without(old) : null;
+                updated = !dropped ? state.replace(old, pending) : remaining == null ? pending : remaining.with(pending);
+            } else {
+                updated = state.with(pending);
+            }
+            if (inputs.replace(id, state, updated)) {
+                if (updated.size() == state.size()) {
+                    // Took the place of another entry
+                    release();
+                }
+                return replaced;
+            }
+        }
+    }
+
+    // Takes a permit for a response to the given input, a response that has to wait is processed later or dropped
+    private boolean admit(UUID id, PendingInput target, ChatInput input, @Nullable AsyncChatEvent event) {
+        CompiledInput<AsyncChatEvent,Component> compiled = target.getInput();
+        RateLimit limit = rateLimiter.limitOf(compiled);
+        if (limit == null) {
+            return true;
+        }
+        AtomicLong bucket = rateLimiter.bucket(id, limit);
+        long now = System.nanoTime();
+        if (limit.getShed() == RateLimit.Shed.DELAY) {
+            long wait = limit.reserve(bucket, now);
+            if (wait == 0) {
+                return true;
+            }
+            if (wait > 0) {
+                if (event != null && (silenceAll || compiled != null && compiled.isSilent())) {
+                    silence(event);
+                }
+                // Runs where handlers run, e.g. on the tick drain, or on the common pool if they run inline.
+                // The event is dispatched by then, handlers still get it to tell where the response came from
+                Executor executor = executor(compiled);
+                Executor delayed = executor == null
+                        ? CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+                        : CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor);
+                delayed.execute(() -> redeliver(target, input, event));
+                return false;
+            }
+        } else if (limit.tryAcquire(bucket, now) == 0) {
+            return true;
+        }
+        rateLimiter.throttled(id, compiled, input.component(), event);
+        return false;
+    }
+
+    // Hands a delayed response to the input it was admitted for, other inputs of the player may have been registered meanwhile.
+    // A response whose input is gone by then is reported as throttled
+    private void redeliver(PendingInput target, ChatInput input, @Nullable AsyncChatEvent event) {
+        PlayerInputs state = inputs.get(target.getId());
+        if (state != null && !target.isClaimed() && InputLimits.contains(state, target)) {
+            if (target.getSession() != null) {
+                handle(target, input, event, false);
+                return;
+            }
+            if (target.getInput().getRetries() > 0) {
+                handle(target, input, event, true);
+                return;
+            }
+            if (target.claim()) {
+                unlink(target);
+                handle(target, input, event, false);
+                return;
+            }
+        }
+        rateLimiter.throttled(target.getId(), target.getInput(), input.component(), event);
+    }
+
+    private void silence(AsyncChatEvent event) {
+        if (silenceMode == SilenceMode.CANCEL) {
+            event.setCancelled(true);
+        } else {
+            event.viewers().clear();
+        }
+    }
+
+    void release() {
+        limits.release();
+    }
+
+    void addOccupancyListener(Runnable listener) {
+        limits.addOccupancyListener(listener);
+    }
+
+    // An input that lost its place to another, dropped without running its handlers
+    private void displace(PendingInput displaced) {
+        expiry.cancel(displaced);
+        cancelFuture(displaced);
+    }
+
+    private void reject(PendingInput rejected) {
+        rejected.claim();
+        try {
+            rejected.getInput().getHandlers().cancelled();
+        } catch (Throwable t) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        }
+    }
+
+    private static void cancelFuture(PendingInput pending) {
+        CompletableFuture<?> future = pending.getInput() == null ? null : pending.getInput().getHandlers().getFuture();
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    void unlink(PendingInput pending) {
+        UUID id = pending.getId();
+        for (;;) {
+            PlayerInputs state = inputs.get(id);
+            if (state == null) {
+                return;
+            }
+            PlayerInputs removed = state.without(pending);
+            if (removed == state) {
+                return;
+            }
+            if (removed == null ? inputs.remove(id, state) : inputs.replace(id, state, removed)) {
+                if (removed == null) {
+                    players.remove(id);
+                }
+                release();
+                return;
+            }
+        }
+    }
+
+    // The parser of a type, or null once the type is reported to onInvalidParser
+    @Nullable
+    InputParser<Component,?> parser(Class<?> type) {
+        Optional<? extends InputParser<Component,?>> parser = fallbackChains ? parserRegistry.findChain(type) : parserRegistry.find(type);
+        if (parser.isEmpty()) {
+            onInvalidParser(type);
+            return null;
+        }
+        return parser.get();
+    }
 
-        // Clean up the registry if no inputs remain for the given ID
-        if (registeredInputs.isEmpty()) {
-            inputs.remove(id);
+    // Prefers the allocation-free contract, falling back to the Optional one for plain parsers.
+    // The view of the message travels with the result, so parsers on any thread share its text
+    static boolean parse(InputParser<Component,?> parser, ChatInput input, ParseResult result) {
+        result.reset().source(input);
+        if (parser instanceof ResultParser<Component,?> resultParser) {
+            return resultParser.parse(input.parsed(), result);
         }
+        Optional<?> parsed = parser.parse(input.parsed());
+        return parsed.isPresent() && result.set(parsed.get());
     }
 
-}
\ No newline at end of file
+}
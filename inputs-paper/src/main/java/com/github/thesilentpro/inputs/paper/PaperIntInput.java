@@ -0,0 +1,52 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.IntHandler;
+import com.github.thesilentpro.inputs.api.IntInput;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Paper-specific implementation of {@link IntInput}, handing parsed chat messages to its handler as a primitive {@code int}.
+ */
+public class PaperIntInput extends PaperPrimitiveInput<Integer, PaperIntInput> implements IntInput<AsyncChatEvent, Component> {
+
+    // Set through the overload taking the event, a consumer set through the other one is adapted on request
+    private IntHandler<AsyncChatEvent> intHandler;
+
+    public PaperIntInput() {
+        super(Integer.class);
+    }
+
+    @Override
+    public PaperIntInput thenInt(IntConsumer handler) {
+        this.intHandler = null;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public PaperIntInput thenInt(IntHandler<AsyncChatEvent> handler) {
+        this.intHandler = handler;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public IntHandler<AsyncChatEvent> getIntHandler() {
+        if (getPrimitiveHandler() instanceof IntConsumer consumer) {
+            return (value, event) -> consumer.accept(value);
+        }
+        return intHandler;
+    }
+
+    @Override
+    public PaperIntInput await() {
+        return new PaperIntInput();
+    }
+
+    @Override
+    protected PaperIntInput self() {
+        return this;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.LongHandler;
+import com.github.thesilentpro.inputs.api.LongInput;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Paper-specific implementation of {@link LongInput}, handing parsed chat messages to its handler as a primitive {@code long}.
+ */
+public class PaperLongInput extends PaperPrimitiveInput<Long, PaperLongInput> implements LongInput<AsyncChatEvent, Component> {
+
+    // Set through the overload taking the event, a consumer set through the other one is adapted on request
+    private LongHandler<AsyncChatEvent> longHandler;
+
+    public PaperLongInput() {
+        super(Long.class);
+    }
+
+    @Override
+    public PaperLongInput thenLong(LongConsumer handler) {
+        this.longHandler = null;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public PaperLongInput thenLong(LongHandler<AsyncChatEvent> handler) {
+        this.longHandler = handler;
+        return primitiveHandler(handler);
+    }
+
+    @Override
+    public LongHandler<AsyncChatEvent> getLongHandler() {
+        if (getPrimitiveHandler() instanceof LongConsumer consumer) {
+            return (value, event) -> consumer.accept(value);
+        }
+        return longHandler;
+    }
+
+    @Override
+    public PaperLongInput await() {
+        return new PaperLongInput();
+    }
+
+    @Override
+    protected PaperLongInput self() {
+        return this;
+    }
+
+}
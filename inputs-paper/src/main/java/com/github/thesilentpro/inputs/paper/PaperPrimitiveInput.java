@@ -0,0 +1,187 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.InputRegistry;
+import com.github.thesilentpro.inputs.api.RateLimit;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Shared base of the Paper inputs whose handler receives a primitive value.
+ * Every setter returns the concrete input, so its primitive handler can still be set anywhere in a chain.
+ *
+ * @param <T> The boxed type of the value.
+ * @param <S> The concrete input type.
+ */
+public abstract class PaperPrimitiveInput<T, S extends PaperPrimitiveInput<T, S>> extends PaperInput<T> {
+
+    // The primitive handler, kept as set so it is dispatched without an adapter
+    private Object primitiveHandler;
+
+    protected PaperPrimitiveInput(Class<T> requiredInputType) {
+        super(requiredInputType);
+    }
+
+    /**
+     * Gets this input as its concrete type.
+     *
+     * @return This input.
+     */
+    protected abstract S self();
+
+    /**
+     * Sets the primitive handler, taking precedence over handlers receiving the boxed value.
+     *
+     * @param handler The handler, as accepted by {@link com.github.thesilentpro.inputs.api.InputHandlers}.
+     * @return This input.
+     */
+    protected S primitiveHandler(Object handler) {
+        this.primitiveHandler = handler;
+        return self();
+    }
+
+    protected Object getPrimitiveHandler() {
+        return primitiveHandler;
+    }
+
+    @Override
+    protected Object getSuccessHandler() {
+        return primitiveHandler != null ? primitiveHandler : super.getSuccessHandler();
+    }
+
+    @Override
+    public abstract S await();
+
+    @Override
+    public S until(Duration duration) {
+        super.until(duration);
+        return self();
+    }
+
+    @Override
+    public S then(Consumer<T> handler) {
+        super.then(handler);
+        return self();
+    }
+
+    @Override
+    public S then(BiConsumer<T, AsyncChatEvent> handler) {
+        super.then(handler);
+        return self();
+    }
+
+    @Override
+    public S mismatch(Consumer<Component> handler) {
+        super.mismatch(handler);
+        return self();
+    }
+
+    @Override
+    public S mismatch(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.mismatch(handler);
+        return self();
+    }
+
+    @Override
+    public S expired(Consumer<Component> handler) {
+        super.expired(handler);
+        return self();
+    }
+
+    @Override
+    public S expired(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.expired(handler);
+        return self();
+    }
+
+    @Override
+    public S timestamp(Instant timestamp) {
+        super.timestamp(timestamp);
+        return self();
+    }
+
+    @Override
+    public S ignoreExpired() {
+        super.ignoreExpired();
+        return self();
+    }
+
+    @Override
+    public S silent() {
+        super.silent();
+        return self();
+    }
+
+    @Override
+    public S executor(Executor executor) {
+        super.executor(executor);
+        return self();
+    }
+
+    @Override
+    public S retries(int retries) {
+        super.retries(retries);
+        return self();
+    }
+
+    @Override
+    public S exhausted(Consumer<Component> handler) {
+        super.exhausted(handler);
+        return self();
+    }
+
+    @Override
+    public S exhausted(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.exhausted(handler);
+        return self();
+    }
+
+    @Override
+    public S throttled(Consumer<Component> handler) {
+        super.throttled(handler);
+        return self();
+    }
+
+    @Override
+    public S throttled(BiConsumer<Component, AsyncChatEvent> handler) {
+        super.throttled(handler);
+        return self();
+    }
+
+    @Override
+    public S rateLimit(RateLimit limit) {
+        super.rateLimit(limit);
+        return self();
+    }
+
+    @Override
+    public S cancelled(Runnable handler) {
+        super.cancelled(handler);
+        return self();
+    }
+
+    @Override
+    public S tag(String tag) {
+        super.tag(tag);
+        return self();
+    }
+
+    @Override
+    public S register(UUID id, InputRegistry<Component, AsyncChatEvent> registry) {
+        super.register(id, registry);
+        return self();
+    }
+
+    @Override
+    public S register(UUID id) {
+        super.register(id);
+        return self();
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.CompiledInput;
+import com.github.thesilentpro.inputs.api.ConversationSession;
+import com.github.thesilentpro.inputs.api.InputHandle;
+import com.github.thesilentpro.inputs.api.TimerWheel;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.UUID;
+
+/**
+ * A registered input waiting in a {@link PaperInputRegistry} for a player's response, in its compiled form,
+ * or the session of a conversation holding the player's slot until it ends.
+ * Timed inputs are linked into the registry's expiry wheel through this entry.
+ * <p>
+ * Whoever consumes the input, a chat message or the expiry wheel, has to {@link #claim()} it first,
+ * so its handlers run exactly once however the two race.
+ * </p>
+ * The entry is also the {@link InputHandle} returned on registration, cancelling it unlinks it directly
+ * instead of searching the player's inputs.
+ */
+public final class PendingInput extends TimerWheel.Node implements PlayerInputs, InputHandle {
+
+    private static final VarHandle CLAIMED;
+    private static final VarHandle ATTEMPTS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CLAIMED = lookup.findVarHandle(PendingInput.class, "claimed", boolean.class);
+            ATTEMPTS = lookup.findVarHandle(PendingInput.class, "attempts", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final PaperInputRegistry registry;
+    private final UUID id;
+    private final CompiledInput<AsyncChatEvent,Component> input;
+    private final ConversationSession<AsyncChatEvent,Component> session;
+    private final String tag;
+    @SuppressWarnings("unused") // Accessed through CLAIMED
+    private volatile boolean claimed;
+    @SuppressWarnings("unused") // Accessed through ATTEMPTS
+    private volatile int attempts;
+
+    PendingInput(PaperInputRegistry registry, UUID id, CompiledInput<AsyncChatEvent,Component> input) {
+        this.registry = registry;
+        this.id = id;
+        this.input = input;
+        this.session = null;
+        this.tag = input.getTag();
+    }
+
+    PendingInput(PaperInputRegistry registry, UUID id, ConversationSession<AsyncChatEvent,Component> session) {
+        this.registry = registry;
+        this.id = id;
+        this.input = null;
+        this.session = session;
+        this.tag = null;
+    }
+
+    @NotNull
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Gets the compiled input.
+     *
+     * @return The input, or {@code null} if this entry is a conversation.
+     */
+    public CompiledInput<AsyncChatEvent,Component> getInput() {
+        return input;
+    }
+
+    /**
+     * Gets the conversation session holding the slot.
+     *
+     * @return The session, or {@code null} if this entry is a single input.
+     */
+    public ConversationSession<AsyncChatEvent,Component> getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the tag the input is registered under.
+     *
+     * @return The tag, or {@code null} if the input is untagged.
+     */
+    @Nullable
+    @Override
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Claims this input for consumption.
+     *
+     * @return {@code true} if the caller won the input, {@code false} if it was already claimed.
+     */
+    boolean claim() {
+        return CLAIMED.compareAndSet(this, false, true);
+    }
+
+    public boolean isClaimed() {
+        return claimed;
+    }
+
+    /**
+     * Counts a failed attempt of an input with retries, which stays in place while it fails.
+     *
+     * @return The number of failed attempts including this one.
+     */
+    int fail() {
+        return (int) ATTEMPTS.getAndAdd(this, 1) + 1;
+    }
+
+    /**
+     * Gets the number of responses that failed to parse while the input stayed in place.
+     *
+     * @return The failed attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public boolean isPending() {
+        return !claimed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cancelling a conversation ends it without running any of its handlers.
+     */
+    @Override
+    public boolean cancel() {
+        return registry.cancel(this, true);
+    }
+
+    // A lone input is its own snapshot
+
+    @NotNull
+    @Override
+    public PendingInput first() {
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public PendingInput get(int index) {
+        if (index != 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Nullable
+    @Override
+    public PendingInput get(@NotNull String tag) {
+        return tag.equals(this.tag) ? this : null;
+    }
+
+    @NotNull
+    @Override
+    public PlayerInputs replace(@NotNull PendingInput old, @NotNull PendingInput input) {
+        return old == this ? input : this;
+    }
+
+    @NotNull
+    @Override
+    public PlayerInputs with(@NotNull PendingInput input) {
+        return new PlayerInputs.Queue(new PendingInput[] {this, input});
+    }
+
+    @Nullable
+    @Override
+    public PlayerInputs without(@NotNull PendingInput input) {
+        return input == this ? null : this;
+    }
+
+}
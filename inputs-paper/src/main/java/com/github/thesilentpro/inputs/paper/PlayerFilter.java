@@ -0,0 +1,38 @@
+package com.github.thesilentpro.inputs.paper;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A counting filter over the players with pending inputs in a {@link PaperInputRegistry}.
+ * <p>
+ * Each player counts towards a single bucket, a bucket at zero proves none of its players has pending inputs,
+ * so chat messages of players without prompts are turned away with one array read instead of a store lookup.
+ * A bucket above zero may be shared, the store has the final say.
+ * </p>
+ */
+final class PlayerFilter {
+
+    private static final int BUCKETS = 1 << 12;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+
+    // Called before the player's snapshot is stored, so the filter never denies a stored player
+    void add(UUID id) {
+        counts.incrementAndGet(bucket(id));
+    }
+
+    // Called after the player's snapshot was removed
+    void remove(UUID id) {
+        counts.decrementAndGet(bucket(id));
+    }
+
+    boolean mightContain(UUID id) {
+        return counts.get(bucket(id)) != 0;
+    }
+
+    private static int bucket(UUID id) {
+        return CompactInputStore.hash(id.getMostSignificantBits(), id.getLeastSignificantBits()) & (BUCKETS - 1);
+    }
+
+}
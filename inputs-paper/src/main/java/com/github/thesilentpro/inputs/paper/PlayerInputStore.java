@@ -0,0 +1,111 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Holds the {@link PlayerInputs} snapshot of every player with pending inputs in a {@link PaperInputRegistry}.
+ * <p>
+ * Snapshots are only ever changed through the conditional operations below, which a registry retries until they succeed.
+ * </p>
+ *
+ * @see #of(ConcurrentMap)
+ * @see #compact()
+ */
+public interface PlayerInputStore {
+
+    /**
+     * Gets the pending inputs of a player.
+     *
+     * @param id The player's unique identifier.
+     * @return The player's snapshot, or {@code null} if the player has no pending inputs.
+     */
+    @Nullable
+    PlayerInputs get(@NotNull UUID id);
+
+    /**
+     * Stores a snapshot for a player without pending inputs.
+     *
+     * @param id The player's unique identifier.
+     * @param inputs The snapshot to store.
+     * @return {@code true} if it was stored, {@code false} if the player already has a snapshot.
+     */
+    boolean putIfAbsent(@NotNull UUID id, @NotNull PlayerInputs inputs);
+
+    /**
+     * Replaces the snapshot of a player if it is still the expected one.
+     *
+     * @param id The player's unique identifier.
+     * @param expected The snapshot the change was based on.
+     * @param inputs The new snapshot.
+     * @return {@code true} if it was replaced.
+     */
+    boolean replace(@NotNull UUID id, @NotNull PlayerInputs expected, @NotNull PlayerInputs inputs);
+
+    /**
+     * Removes the snapshot of a player if it is still the expected one.
+     *
+     * @param id The player's unique identifier.
+     * @param expected The snapshot the change was based on.
+     * @return {@code true} if it was removed.
+     */
+    boolean remove(@NotNull UUID id, @NotNull PlayerInputs expected);
+
+    /**
+     * Gets the number of players with pending inputs.
+     *
+     * @return The number of players.
+     */
+    int size();
+
+    /**
+     * Passes the snapshot of every player with pending inputs to an action.
+     * The action may change the store, snapshots stored meanwhile may or may not be visited.
+     *
+     * @param action The action.
+     */
+    void forEach(@NotNull Consumer<? super PlayerInputs> action);
+
+    /**
+     * Creates a store backed by a map.
+     *
+     * @param map The map holding the snapshots.
+     * @return The store.
+     */
+    @NotNull
+    static PlayerInputStore of(@NotNull ConcurrentMap<UUID, PlayerInputs> map) {
+        return new MapInputStore(map);
+    }
+
+    /**
+     * Creates a store keyed by the two longs of each {@link UUID} in open-addressed arrays.
+     * It allocates no entry objects, so its memory scales with the number of players rather than with object headers.
+     *
+     * @return The store.
+     */
+    @NotNull
+    static PlayerInputStore compact() {
+        return new CompactInputStore(CompactInputStore.MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a compact store sized for a number of players.
+     *
+     * @param expectedPlayers The number of players expected to have pending inputs at once.
+     * @return The store.
+     * @throws IllegalArgumentException If the number is negative or beyond what a compact store can hold at half load.
+     * @see #compact()
+     */
+    @NotNull
+    static PlayerInputStore compact(int expectedPlayers) {
+        if (expectedPlayers < 0 || expectedPlayers > CompactInputStore.MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("Expected players must be between 0 and " + CompactInputStore.MAX_CAPACITY / 2 + ": " + expectedPlayers);
+        }
+        return new CompactInputStore(expectedPlayers * 2);
+    }
+
+}
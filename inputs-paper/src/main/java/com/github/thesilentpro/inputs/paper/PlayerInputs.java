@@ -0,0 +1,166 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, ordered snapshot of the inputs a player has pending in a {@link PaperInputRegistry}.
+ * <p>
+ * A single pending input is its own snapshot, a queue is only created once a player has several.
+ * Registries replace snapshots atomically, so a registration racing with a chat message can never be lost.
+ * </p>
+ */
+public sealed interface PlayerInputs permits PendingInput, PlayerInputs.Queue {
+
+    /**
+     * Gets the oldest pending input.
+     *
+     * @return The first input.
+     */
+    @NotNull
+    PendingInput first();
+
+    /**
+     * Gets the pending input at a position.
+     *
+     * @param index The position, 0 being the oldest.
+     * @return The input at the position.
+     */
+    @NotNull
+    PendingInput get(int index);
+
+    int size();
+
+    /**
+     * Gets the pending input registered under a tag.
+     *
+     * @param tag The tag.
+     * @return The input, or {@code null} if none is registered under the tag.
+     */
+    @Nullable
+    PendingInput get(@NotNull String tag);
+
+    /**
+     * Creates a snapshot with an input appended.
+     *
+     * @param input The input to add.
+     * @return The new snapshot.
+     */
+    @NotNull
+    PlayerInputs with(@NotNull PendingInput input);
+
+    /**
+     * Creates a snapshot with an input taking the place of another.
+     *
+     * @param old The input to replace.
+     * @param input The input to put in its place.
+     * @return The new snapshot, or this snapshot if the old input is not part of it.
+     */
+    @NotNull
+    PlayerInputs replace(@NotNull PendingInput old, @NotNull PendingInput input);
+
+    /**
+     * Creates a snapshot without an input.
+     *
+     * @param input The input to remove.
+     * @return The new snapshot, this snapshot if the input is not part of it, or {@code null} if it would be empty.
+     */
+    @Nullable
+    PlayerInputs without(@NotNull PendingInput input);
+
+    /**
+     * Several pending inputs, oldest first, with an index of the tagged ones.
+     */
+    final class Queue implements PlayerInputs {
+
+        private final PendingInput[] inputs;
+        // Null if no input is tagged
+        private final Map<String, PendingInput> tags;
+
+        Queue(PendingInput[] inputs) {
+            this.inputs = inputs;
+            Map<String, PendingInput> tags = null;
+            for (PendingInput input : inputs) {
+                if (input.getTag() != null) {
+                    if (tags == null) {
+                        tags = new HashMap<>();
+                    }
+                    tags.put(input.getTag(), input);
+                }
+            }
+            this.tags = tags;
+        }
+
+        @NotNull
+        @Override
+        public PendingInput first() {
+            return inputs[0];
+        }
+
+        @NotNull
+        @Override
+        public PendingInput get(int index) {
+            return inputs[index];
+        }
+
+        @Override
+        public int size() {
+            return inputs.length;
+        }
+
+        @Nullable
+        @Override
+        public PendingInput get(@NotNull String tag) {
+            return tags == null ? null : tags.get(tag);
+        }
+
+        @NotNull
+        @Override
+        public PlayerInputs replace(@NotNull PendingInput old, @NotNull PendingInput input) {
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i] == old) {
+                    PendingInput[] replaced = inputs.clone();
+                    replaced[i] = input;
+                    return new Queue(replaced);
+                }
+            }
+            return this;
+        }
+
+        @NotNull
+        @Override
+        public PlayerInputs with(@NotNull PendingInput input) {
+            PendingInput[] added = Arrays.copyOf(inputs, inputs.length + 1);
+            added[inputs.length] = input;
+            return new Queue(added);
+        }
+
+        @Nullable
+        @Override
+        public PlayerInputs without(@NotNull PendingInput input) {
+            int index = -1;
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i] == input) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return this;
+            }
+            if (inputs.length == 2) {
+                return inputs[1 - index];
+            }
+            PendingInput[] removed = new PendingInput[inputs.length - 1];
+            System.arraycopy(inputs, 0, removed, 0, index);
+            System.arraycopy(inputs, index + 1, removed, index, inputs.length - index - 1);
+            return new Queue(removed);
+        }
+
+    }
+
+}
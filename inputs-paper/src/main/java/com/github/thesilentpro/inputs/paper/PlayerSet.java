@@ -0,0 +1,81 @@
+package com.github.thesilentpro.inputs.paper;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * An immutable set of player ids, stored as the two longs of each {@link UUID} in an open-addressed table.
+ * <p>
+ * Every member owns a fixed slot, so per-member state can be kept in flat arrays or bitsets indexed by {@link #indexOf(UUID)}
+ * instead of a map. Lookups only read final arrays and are safe from any thread.
+ * </p>
+ */
+final class PlayerSet {
+
+    private final long[] keys;
+    // A member's slot is marked, since every pair of longs is a valid id
+    private final long[] used;
+    private final int size;
+
+    private PlayerSet(long[] keys, long[] used, int size) {
+        this.keys = keys;
+        this.used = used;
+        this.size = size;
+    }
+
+    static PlayerSet of(Collection<UUID> ids) {
+        // At most two thirds full
+        int capacity = Integer.highestOneBit(Math.max(4, ids.size() * 3 / 2)) << 1;
+        long[] keys = new long[capacity * 2];
+        long[] used = new long[(capacity + 63) >>> 6];
+        int size = 0;
+        int mask = capacity - 1;
+        for (UUID id : ids) {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            int slot = CompactInputStore.hash(msb, lsb) & mask;
+            while (isUsed(used, slot) && (keys[slot * 2] != msb || keys[slot * 2 + 1] != lsb)) {
+                slot = (slot + 1) & mask;
+            }
+            if (!isUsed(used, slot)) {
+                keys[slot * 2] = msb;
+                keys[slot * 2 + 1] = lsb;
+                used[slot >>> 6] |= 1L << slot;
+                size++;
+            }
+        }
+        return new PlayerSet(keys, used, size);
+    }
+
+    /**
+     * Gets the slot of a member.
+     *
+     * @param id The player's unique identifier.
+     * @return The slot, or {@code -1} if the player is no member.
+     */
+    int indexOf(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int mask = capacity() - 1;
+        for (int slot = CompactInputStore.hash(msb, lsb) & mask; isUsed(used, slot); slot = (slot + 1) & mask) {
+            if (keys[slot * 2] == msb && keys[slot * 2 + 1] == lsb) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slots range from 0 to the capacity, exclusive
+    int capacity() {
+        return keys.length >>> 1;
+    }
+
+    private static boolean isUsed(long[] used, int slot) {
+        return (used[slot >>> 6] & 1L << slot) != 0;
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.api.CompiledInput;
+import com.github.thesilentpro.inputs.api.RateLimit;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link RateLimit rate limits} of a {@link PaperInputRegistry} and the token buckets of the players sending responses under them.
+ * <p>
+ * Each player has a bucket per limit, created with the first response under it, so responses to an input with a limit
+ * of its own never drain the bucket of the registry's limit, nor the other way around. Limits are told apart by identity,
+ * inputs sharing a limit instance share its bucket. The buckets of a player are dropped on quit, and swept lazily
+ * once they are all full again, as they are then no different from new ones. Sweeps run at most once per second,
+ * when a player without buckets gets some, so the map never outgrows the players who responded recently.
+ * </p>
+ */
+final class RateLimiter {
+
+    private static final long SWEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<UUID, Buckets> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private volatile RateLimit limit;
+    private volatile BiConsumer<UUID, Component> throttledHandler;
+
+    void limit(@Nullable RateLimit limit) {
+        this.limit = limit;
+    }
+
+    void throttledHandler(@Nullable BiConsumer<UUID, Component> handler) {
+        this.throttledHandler = handler;
+    }
+
+    /**
+     * Gets the limit responses to an input are taken under.
+     *
+     * @param input The input, or {@code null} for a conversation.
+     * @return The input's own limit, the registry's, or {@code null} if responses are not limited.
+     */
+    @Nullable
+    RateLimit limitOf(@Nullable CompiledInput<AsyncChatEvent,Component> input) {
+        return input != null && input.getRateLimit() != null ? input.getRateLimit() : limit;
+    }
+
+    // Snapshots are swapped with conditional replace, like the inputs of a player, so a bucket is never created twice
+    AtomicLong bucket(UUID id, RateLimit limit) {
+        for (;;) {
+            Buckets current = buckets.get(id);
+            AtomicLong bucket = current == null ? null : current.get(limit);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (current == null) {
+                sweep();
+            }
+            Buckets updated = current == null ? new Buckets(limit) : current.with(limit);
+            if (current == null ? buckets.putIfAbsent(id, updated) == null : buckets.replace(id, current, updated)) {
+                return updated.get(limit);
+            }
+        }
+    }
+
+    // The player left, whatever the buckets held no longer matters
+    void forget(UUID id) {
+        buckets.remove(id);
+    }
+
+    // Full buckets are no different from new ones. A permit taken from a bucket as it is swept goes uncounted,
+    // which lets at most one response per player and sweep through early
+    private void sweep() {
+        long now = System.nanoTime();
+        long next = nextSweep.get();
+        if (now - next >= 0 && nextSweep.compareAndSet(next, now + SWEEP_NANOS)) {
+            // Removes only the snapshots it saw, a player's buckets replaced meanwhile stay
+            buckets.values().removeIf(player -> player.isFull(now));
+        }
+    }
+
+    /**
+     * Reports a dropped response to the input's throttled handler, or the registry's if the input has none.
+     *
+     * @param id The player's unique identifier.
+     * @param compiled The input the response was meant for, or {@code null} for a conversation.
+     * @param input The response.
+     * @param event The event the response arrived with.
+     */
+    void throttled(UUID id, @Nullable CompiledInput<AsyncChatEvent,Component> compiled, Component input, @Nullable AsyncChatEvent event) {
+        try {
+            if (compiled != null && compiled.getHandlers().hasThrottledHandler()) {
+                compiled.getHandlers().throttled(input, event);
+            } else {
+                BiConsumer<UUID, Component> handler = throttledHandler;
+                if (handler != null) {
+                    handler.accept(id, input);
+                }
+            }
+        } catch (Throwable t) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        }
+    }
+
+    // The buckets of a player in the order their limits were first used, most players only ever use one
+    private static final class Buckets {
+
+        private final RateLimit[] limits;
+        private final AtomicLong[] buckets;
+
+        Buckets(RateLimit limit) {
+            this(new RateLimit[]{limit}, new AtomicLong[]{RateLimit.newBucket()});
+        }
+
+        private Buckets(RateLimit[] limits, AtomicLong[] buckets) {
+            this.limits = limits;
+            this.buckets = buckets;
+        }
+
+        @Nullable
+        AtomicLong get(RateLimit limit) {
+            for (int i = 0; i < limits.length; i++) {
+                if (limits[i] == limit) {
+                    return buckets[i];
+                }
+            }
+            return null;
+        }
+
+        Buckets with(RateLimit limit) {
+            int size = limits.length;
+            RateLimit[] limits = Arrays.copyOf(this.limits, size + 1);
+            AtomicLong[] buckets = Arrays.copyOf(this.buckets, size + 1);
+            limits[size] = limit;
+            buckets[size] = RateLimit.newBucket();
+            return new Buckets(limits, buckets);
+        }
+
+        boolean isFull(long now) {
+            for (AtomicLong bucket : buckets) {
+                if (!RateLimit.isFull(bucket, now)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.github.thesilentpro.inputs.paper;
+
+/**
+ * How a {@link PaperInputRegistry} keeps a chat message consumed by a silent input from being broadcast.
+ *
+ * @see PaperInputRegistry#silenceMode(SilenceMode)
+ */
+public enum SilenceMode {
+
+    /**
+     * Cancels the chat event, the message is neither rendered nor seen by listeners running later.
+     */
+    CANCEL,
+
+    /**
+     * Empties the viewers of the chat event, listeners running later still see it but nobody receives it.
+     */
+    CLEAR_VIEWERS
+
+}
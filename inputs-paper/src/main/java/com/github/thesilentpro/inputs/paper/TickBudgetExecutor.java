@@ -0,0 +1,145 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs handlers on the main thread in batches, once per tick and within a time budget.
+ * <p>
+ * Tasks are queued in a lock-free multi-producer, single-consumer queue and drained by a single repeating task, so a
+ * burst of completed inputs does not schedule a task each. What does not fit into a tick's budget is carried over to the
+ * next tick, at least one task runs every tick so the queue always makes progress.
+ * </p>
+ *
+ * @see PaperInputRegistry#tickDrain(Plugin, Duration)
+ */
+public final class TickBudgetExecutor implements Executor {
+
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(TickBudgetExecutor.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long budgetNanos;
+    private volatile BukkitTask task;
+
+    // Only the draining thread moves the head, producers swap the tail
+    private Node head;
+    @SuppressWarnings("unused") // Accessed through TAIL
+    private volatile Node tail;
+
+    public TickBudgetExecutor(@NotNull Duration budget) {
+        budget(budget);
+        this.head = new Node(null);
+        this.tail = head;
+    }
+
+    /**
+     * Sets the time draining may take per tick.
+     *
+     * @param budget The budget.
+     * @return This executor.
+     */
+    public TickBudgetExecutor budget(@NotNull Duration budget) {
+        if (budget.isNegative()) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        this.budgetNanos = budget.toNanos();
+        return this;
+    }
+
+    /**
+     * Starts draining every tick, replacing a previously started drain task.
+     *
+     * @param plugin The plugin owning the drain task.
+     * @return This executor.
+     */
+    public synchronized TickBudgetExecutor start(@NotNull Plugin plugin) {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        return this;
+    }
+
+    /**
+     * Stops draining. Queued tasks are kept and run once the executor is started again.
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        Node node = new Node(command);
+        pending.incrementAndGet();
+        Node previous = (Node) TAIL.getAndSet(this, node);
+        // Until this store the consumer sees the queue end at previous, it simply picks the node up next tick
+        NEXT.setRelease(previous, node);
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty or the budget is spent. Called every tick once started.
+     * Must only be called from one thread at a time, normally the main thread.
+     */
+    public void drain() {
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            Node next = (Node) NEXT.getAcquire(head);
+            if (next == null) {
+                return;
+            }
+            Runnable command = next.command;
+            // The taken node becomes the new sentinel
+            next.command = null;
+            head = next;
+            pending.decrementAndGet();
+            try {
+                command.run();
+            } catch (Throwable t) {
+                // A failing handler must not hold back the rest of the queue
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        } while (System.nanoTime() - deadline < 0);
+    }
+
+    /**
+     * Gets the number of tasks waiting to be run.
+     *
+     * @return The number of queued tasks.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    private static final class Node {
+
+        private Runnable command;
+        @SuppressWarnings("unused") // Accessed through NEXT
+        private volatile Node next;
+
+        private Node(Runnable command) {
+            this.command = command;
+        }
+
+    }
+
+}
@@ -1,15 +1,17 @@
 package com.github.thesilentpro.inputs.paper.parser;
 
+import com.github.thesilentpro.inputs.api.ParseResult;
+import com.github.thesilentpro.inputs.paper.ChatInput;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 /**
  * A utility class that provides methods for parsing durations from Adventure {@link Component} representations.
@@ -19,6 +21,9 @@ import java.util.regex.Pattern;
  * Each method accepts a Component, extracts plain text, and attempts to parse into a Duration,
  * handling invalid parts via optional callbacks or returning an Optional.
  * </p>
+ * The text is scanned in a single pass: units are matched case-insensitively against a precomputed trie and the total
+ * is summed as primitive seconds and nanos, so no intermediate strings are created unless an invalid part is reported.
+ * {@link #format(Duration)} turns a duration back into text this parser accepts.
  */
 public final class DurationParser {
 
@@ -41,10 +46,13 @@ public final class DurationParser {
             Map.entry("s", ChronoUnit.SECONDS),
             Map.entry("second", ChronoUnit.SECONDS),
             Map.entry("seconds", ChronoUnit.SECONDS),
+            Map.entry("ms", ChronoUnit.MILLIS),
             Map.entry("millis", ChronoUnit.MILLIS),
             Map.entry("milliseconds", ChronoUnit.MILLIS),
+            Map.entry("us", ChronoUnit.MICROS),
             Map.entry("micros", ChronoUnit.MICROS),
             Map.entry("microseconds", ChronoUnit.MICROS),
+            Map.entry("ns", ChronoUnit.NANOS),
             Map.entry("nanos", ChronoUnit.NANOS),
             Map.entry("nanoseconds", ChronoUnit.NANOS),
             Map.entry("mo", ChronoUnit.MONTHS),
@@ -63,8 +71,41 @@ public final class DurationParser {
             Map.entry("forever", ChronoUnit.FOREVER)
     );
 
-    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
-    private static final PlainTextComponentSerializer SERIALIZER = PlainTextComponentSerializer.plainText();
+    private static final int ALPHABET = 26;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Trie over lower-case ASCII letters, node 0 is the root and -1 marks a missing edge
+    private static final int[][] TRIE;
+    private static final ChronoUnit[] TRIE_UNITS;
+
+    // Largest units first, each with the suffix it is formatted with
+    private static final long[] FORMAT_NANOS = {86_400 * NANOS_PER_SECOND, 3_600 * NANOS_PER_SECOND, 60 * NANOS_PER_SECOND, NANOS_PER_SECOND, 1_000_000L, 1_000L, 1L};
+    private static final String[] FORMAT_SUFFIXES = {"d", "h", "m", "s", "ms", "us", "ns"};
+
+    static {
+        int nodes = 1;
+        for (String alias : UNIT_MAP.keySet()) {
+            nodes += alias.length();
+        }
+        int[][] trie = new int[nodes][];
+        ChronoUnit[] units = new ChronoUnit[nodes];
+        trie[0] = newTrieNode();
+        int size = 1;
+        for (Map.Entry<String, ChronoUnit> entry : UNIT_MAP.entrySet()) {
+            int node = 0;
+            for (char c : entry.getKey().toCharArray()) {
+                int edge = c - 'a';
+                if (trie[node][edge] < 0) {
+                    trie[size] = newTrieNode();
+                    trie[node][edge] = size++;
+                }
+                node = trie[node][edge];
+            }
+            units[node] = entry.getValue();
+        }
+        TRIE = Arrays.copyOf(trie, size);
+        TRIE_UNITS = Arrays.copyOf(units, size);
+    }
 
     private DurationParser() {
         throw new UnsupportedOperationException("Utility class");
@@ -72,41 +113,74 @@ public final class DurationParser {
 
     /**
      * Parse a duration from a Component, returning null on failure or zero duration.
+     *
+     * @throws ArithmeticException If the total exceeds the capacity of a {@link Duration}.
      */
     @Nullable
     public static Duration parse(@Nullable Component component, @Nullable Consumer<String> invalidUnitHandler, @Nullable Consumer<String> invalidNumberHandler) {
-        String input = extract(component);
-        if (input == null || input.isBlank()) {
+        return parse(extract(component), invalidUnitHandler, invalidNumberHandler);
+    }
+
+    @Nullable
+    private static Duration parse(@Nullable String input, @Nullable Consumer<String> invalidUnitHandler, @Nullable Consumer<String> invalidNumberHandler) {
+        if (input == null || input.isEmpty()) {
             return null;
         }
-        String[] parts = WHITESPACE.split(input.trim());
-        Duration duration = Duration.ZERO;
-        for (String part : parts) {
-            int idx = 0;
-            while (idx < part.length() && Character.isDigit(part.charAt(idx))) {
-                idx++;
+
+        long seconds = 0;
+        long nanos = 0;
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
             }
-            if (idx == 0) {
-                if (invalidNumberHandler != null) invalidNumberHandler.accept(part);
+            int start = i;
+
+            long amount = 0;
+            while (i < length && Character.isDigit(input.charAt(i))) {
+                // Stop accumulating past int range, such amounts are reported as invalid numbers
+                if (amount <= Integer.MAX_VALUE) {
+                    amount = amount * 10 + Character.digit(input.charAt(i), 10);
+                }
+                i++;
+            }
+            int digitsEnd = i;
+
+            int node = 0;
+            while (i < length && !isWhitespace(input.charAt(i))) {
+                if (node >= 0) {
+                    node = next(node, input.charAt(i));
+                }
+                i++;
+            }
+
+            if (digitsEnd == start) {
+                if (invalidNumberHandler != null) invalidNumberHandler.accept(input.substring(start, i));
+                continue;
+            }
+            if (amount > Integer.MAX_VALUE) {
+                if (invalidNumberHandler != null) invalidNumberHandler.accept(input.substring(start, digitsEnd));
                 continue;
             }
-            String numStr = part.substring(0, idx);
-            String unitStr = part.substring(idx).toLowerCase();
-            int amount;
-            try {
-                amount = Integer.parseInt(numStr);
-            } catch (NumberFormatException e) {
-                if (invalidNumberHandler != null) invalidNumberHandler.accept(numStr);
+            ChronoUnit unit = node < 0 ? null : TRIE_UNITS[node];
+            if (unit == null) {
+                if (invalidUnitHandler != null) invalidUnitHandler.accept(input.substring(digitsEnd, i).toLowerCase());
                 continue;
             }
-            ChronoUnit unit = UNIT_MAP.get(unitStr);
-            if (unit != null) {
-                duration = duration.plus(unit.getDuration().multipliedBy(amount));
-            } else {
-                if (invalidUnitHandler != null) invalidUnitHandler.accept(unitStr);
+
+            Duration unitDuration = unit.getDuration();
+            seconds = Math.addExact(seconds, Math.multiplyExact(amount, unitDuration.getSeconds()));
+            nanos += amount * unitDuration.getNano();
+            if (nanos >= NANOS_PER_SECOND) {
+                seconds = Math.addExact(seconds, nanos / NANOS_PER_SECOND);
+                nanos %= NANOS_PER_SECOND;
             }
         }
-        return duration.isZero() ? null : duration;
+        return seconds == 0 && nanos == 0 ? null : Duration.ofSeconds(seconds, nanos);
     }
 
     public static Duration parse(@Nullable Component component, @Nullable Consumer<String> invalidUnitHandler) {
@@ -136,9 +210,91 @@ public final class DurationParser {
         return parseSafely(component, null, null);
     }
 
+    /**
+     * Parse a duration into a {@link ParseResult}, the {@link com.github.thesilentpro.inputs.api.ResultParser} form of {@link #parseSafely(Component)}.
+     */
+    public static boolean parse(@Nullable Component component, @NotNull ParseResult result) {
+        try {
+            Duration duration = parse(component == null ? null : ChatInput.of(component, result).text(), null, null);
+            return duration != null && result.set(duration);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Formats a duration as text this parser accepts, e.g. "1d 2h 30m".
+     * Days are the largest unit, since months and years are only estimated.
+     * The text parses back to the same duration as long as the number of days fits in an {@code int}.
+     * Zero is formatted as "0s", which parses back to {@code null} like every zero duration.
+     *
+     * @param duration The duration to format.
+     * @return The formatted duration.
+     * @throws IllegalArgumentException If the duration is negative, which the parser does not accept.
+     */
+    @NotNull
+    public static String format(@NotNull Duration duration) {
+        return format(duration, new StringBuilder(16)).toString();
+    }
+
+    /**
+     * Appends a duration formatted like {@link #format(Duration)} to a builder.
+     *
+     * @param duration The duration to format.
+     * @param builder The builder to append to.
+     * @return The builder.
+     * @throws IllegalArgumentException If the duration is negative, which the parser does not accept.
+     */
+    @NotNull
+    public static StringBuilder format(@NotNull Duration duration, @NotNull StringBuilder builder) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Cannot format a negative duration: " + duration);
+        }
+        if (duration.isZero()) {
+            return builder.append("0s");
+        }
+
+        // Whole days first, the remainder of a day always fits in nanos
+        long days = duration.getSeconds() / 86_400;
+        long remainder = (duration.getSeconds() % 86_400) * NANOS_PER_SECOND + duration.getNano();
+        int start = builder.length();
+        if (days > 0) {
+            builder.append(days).append(FORMAT_SUFFIXES[0]);
+        }
+        for (int i = 1; i < FORMAT_NANOS.length && remainder > 0; i++) {
+            long amount = remainder / FORMAT_NANOS[i];
+            if (amount > 0) {
+                if (builder.length() > start) {
+                    builder.append(' ');
+                }
+                builder.append(amount).append(FORMAT_SUFFIXES[i]);
+                remainder -= amount * FORMAT_NANOS[i];
+            }
+        }
+        return builder;
+    }
+
+    private static int next(int node, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c += 'a' - 'A';
+        }
+        return c >= 'a' && c <= 'z' ? TRIE[node][c - 'a'] : -1;
+    }
+
+    // Same characters as the \s regex class the parser used to split on
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int[] newTrieNode() {
+        int[] node = new int[ALPHABET];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
     @Nullable
     private static String extract(@Nullable Component component) {
-        return component == null ? null : SERIALIZER.serialize(component);
+        return component == null ? null : ChatInput.of(component).text();
     }
 
 }
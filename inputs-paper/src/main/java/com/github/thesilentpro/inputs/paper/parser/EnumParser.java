@@ -0,0 +1,408 @@
+package com.github.thesilentpro.inputs.paper.parser;
+
+import com.github.thesilentpro.inputs.api.ParseResult;
+import com.github.thesilentpro.inputs.api.ResultParser;
+import com.github.thesilentpro.inputs.paper.ChatInput;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Parses the constants of an enum from their names, ignoring case. Spaces and hyphens match underscores,
+ * so "light blue" and "light-blue" both parse to {@code LIGHT_BLUE}. Further names can be added as {@link #withAliases(Map) aliases}.
+ * <p>
+ * Names are looked up in a perfect hash table built once per enum, no two names sharing a slot and at most four fifths
+ * of the slots in use: the text is folded and hashed in a single pass and compared against exactly one candidate,
+ * so even {@code Material} with its thousands of constants costs a single probe and allocates nothing. {@link #of(Class)} caches the parser of each enum.
+ * </p>
+ * <p>
+ * Mismatch handlers can offer the closest names with {@link #suggest(String, int)},
+ * answered from a BK-tree over the names that is only built when first asked.
+ * </p>
+ * {@link PaperInputParserRegistry} uses the cached parser for any enum awaited without a registered parser.
+ *
+ * @param <E> The enum type
+ * @author TheSilentPro (Silent)
+ */
+public final class EnumParser<E extends Enum<E>> implements ResultParser<Component,E> {
+
+    private static final ClassValue<EnumParser<?>> CACHE = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected EnumParser<?> computeValue(Class<?> type) {
+            return new EnumParser(type);
+        }
+    };
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    // Displacements tried per bucket before the table is rebuilt with another hash basis
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+
+    private final Class<E> type;
+    private final Map<String, E> names;
+
+    // The perfect hash table: the folded name and constant of every slot, and the displacement of every bucket
+    private final String[] keys;
+    private final Object[] values;
+    private final int[] displacements;
+    private final long basis;
+    private final int mask;
+    private final int bucketMask;
+
+    private volatile BkTree tree;
+
+    public EnumParser(@NotNull Class<E> type) {
+        this(type, null, Collections.emptyMap());
+    }
+
+    // Extends the folded names of another parser of the enum, or starts from the constant names
+    private EnumParser(Class<E> type, @Nullable Map<String, E> existing, Map<String, E> aliases) {
+        this.type = type;
+        // Existing names first, so an alias colliding with one is reported as the alias
+        Map<String, E> names = new LinkedHashMap<>();
+        if (existing != null) {
+            names.putAll(existing);
+        } else {
+            for (E value : type.getEnumConstants()) {
+                names.putIfAbsent(fold(value.name()), value);
+            }
+        }
+        aliases.forEach((alias, value) -> {
+            E previous = names.putIfAbsent(fold(alias), value);
+            if (previous != null && previous != value) {
+                throw new IllegalArgumentException("Alias '" + alias + "' of " + value + " already stands for " + previous);
+            }
+        });
+        this.names = names;
+
+        String[] entries = names.keySet().toArray(new String[0]);
+        int capacity = tableSizeFor(entries.length + (entries.length >> 2));
+        int buckets = tableSizeFor(entries.length >> 1);
+        this.mask = capacity - 1;
+        this.bucketMask = buckets - 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.displacements = new int[buckets];
+        long basis = 0xcbf29ce484222325L;
+        while (!build(entries, basis)) {
+            basis = mix(basis + GOLDEN);
+        }
+        this.basis = basis;
+    }
+
+    /**
+     * Gets the parser of an enum, built on first use and cached for the lifetime of the class.
+     *
+     * @param type The enum.
+     * @return The parser.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumParser<E> of(@NotNull Class<E> type) {
+        return (EnumParser<E>) CACHE.get(type);
+    }
+
+    /**
+     * Creates a parser that also accepts further names, e.g. "gold" for {@code GOLD_INGOT}.
+     * Aliases are folded like constant names, so "Gold" and "GOLD" are the same alias.
+     *
+     * @param aliases The additional names and the constants they stand for.
+     * @return A new parser, to be registered for the enum.
+     * @throws IllegalArgumentException If an alias, once folded, is already the name or an alias of another constant.
+     */
+    @NotNull
+    public EnumParser<E> withAliases(@NotNull Map<String, E> aliases) {
+        return new EnumParser<>(type, names, aliases);
+    }
+
+    @NotNull
+    public Class<E> getType() {
+        return type;
+    }
+
+    @Override
+    public boolean parse(@NotNull Component input, @NotNull ParseResult result) {
+        E value = lookup(ChatInput.of(input, result).text());
+        return value != null && result.set(value);
+    }
+
+    /**
+     * Looks up a constant by its name or an alias.
+     *
+     * @param name The name, matched ignoring case with spaces and hyphens standing for underscores.
+     * @return The constant, or {@code null} if there is none of that name.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public E lookup(@NotNull CharSequence name) {
+        long hash = hash(name, basis);
+        int slot = slot(hash, displacements[bucket(hash)]);
+        String key = keys[slot];
+        return key != null && matches(key, name) ? (E) values[slot] : null;
+    }
+
+    /**
+     * Suggests the constants whose names are closest to a response that did not parse, e.g. from a mismatch handler.
+     * Only names within a few edits of the response are suggested, the closest first.
+     *
+     * @param input The response.
+     * @param limit The maximum number of suggestions.
+     * @return The suggested constants, empty if no name is close enough.
+     */
+    @NotNull
+    public List<E> suggest(@NotNull String input, int limit) {
+        String folded = fold(input.trim());
+        // Roughly one typo every three characters, a single one for short names
+        return tree().search(folded, Math.max(1, folded.length() / 3), limit);
+    }
+
+    /**
+     * Suggests the constants whose names are closest to a response that did not parse.
+     *
+     * @param input The response.
+     * @param limit The maximum number of suggestions.
+     * @return The suggested constants, empty if no name is close enough.
+     * @see #suggest(String, int)
+     */
+    @NotNull
+    public List<E> suggest(@NotNull Component input, int limit) {
+        return suggest(ChatInput.of(input).text(), limit);
+    }
+
+    // Places every bucket, largest first, at the first displacement sending all of its keys to distinct free slots
+    private boolean build(String[] entries, long basis) {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(displacements, 0);
+        long[] hashes = new long[entries.length];
+        List<List<Integer>> buckets = new ArrayList<>(displacements.length);
+        for (int i = 0; i < displacements.length; i++) {
+            buckets.add(new ArrayList<>(2));
+        }
+        for (int i = 0; i < entries.length; i++) {
+            hashes[i] = hash(entries[i], basis);
+            buckets.get(bucket(hashes[i])).add(i);
+        }
+        Integer[] order = new Integer[buckets.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] slots = new int[entries.length];
+        for (int bucket : order) {
+            List<Integer> members = buckets.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            int displacement = 0;
+            while (!fits(members, hashes, displacement, slots)) {
+                if (++displacement == MAX_DISPLACEMENT) {
+                    // Keys sharing a full hash can never be separated, start over with another basis
+                    return false;
+                }
+            }
+            displacements[bucket] = displacement;
+            for (int i = 0; i < members.size(); i++) {
+                int entry = members.get(i);
+                keys[slots[i]] = entries[entry];
+                values[slots[i]] = names.get(entries[entry]);
+            }
+        }
+        return true;
+    }
+
+    private boolean fits(List<Integer> members, long[] hashes, int displacement, int[] slots) {
+        for (int i = 0; i < members.size(); i++) {
+            int slot = slot(hashes[members.get(i)], displacement);
+            if (keys[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private int bucket(long hash) {
+        return (int) (hash >>> 32) & bucketMask;
+    }
+
+    private int slot(long hash, int displacement) {
+        return (int) mix(hash + displacement * GOLDEN) & mask;
+    }
+
+    private BkTree tree() {
+        BkTree tree = this.tree;
+        if (tree == null) {
+            synchronized (this) {
+                tree = this.tree;
+                if (tree == null) {
+                    tree = new BkTree(names.keySet());
+                    this.tree = tree;
+                }
+            }
+        }
+        return tree;
+    }
+
+    // FNV-1a over the folded characters, finished with a mixer so both halves of the hash are usable
+    private static long hash(CharSequence name, long basis) {
+        long hash = basis;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ fold(name.charAt(i))) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static boolean matches(String key, CharSequence name) {
+        if (key.length() != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != fold(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fold(char c) {
+        if (c == ' ' || c == '-') {
+            return '_';
+        }
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? (char) (c - 32) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+
+    private static String fold(String name) {
+        char[] chars = new char[name.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(name.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    // Finalizer of MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tableSizeFor(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    // A BK-tree over the folded names: children hang off their parent by edit distance, so by the triangle inequality
+    // a search within distance d only descends into children whose edge lies within d of the query's distance to the parent
+    private final class BkTree {
+
+        private final String[] words;
+        private final int[] firstChild;
+        private final int[] nextSibling;
+        private final int[] edge;
+        private int size;
+
+        private BkTree(Collection<String> names) {
+            this.words = new String[names.size()];
+            this.firstChild = new int[words.length];
+            this.nextSibling = new int[words.length];
+            this.edge = new int[words.length];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            for (String name : names) {
+                add(name);
+            }
+        }
+
+        private void add(String word) {
+            int node = size++;
+            words[node] = word;
+            if (node == 0) {
+                return;
+            }
+            int parent = 0;
+            for (;;) {
+                int distance = distance(word, words[parent]);
+                int child = firstChild[parent];
+                while (child >= 0 && edge[child] != distance) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    edge[node] = distance;
+                    nextSibling[node] = firstChild[parent];
+                    firstChild[parent] = node;
+                    return;
+                }
+                parent = child;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<E> search(String query, int maxDistance, int limit) {
+            if (size == 0 || limit <= 0) {
+                return List.of();
+            }
+            List<int[]> matches = new ArrayList<>();
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.push(0);
+            while (!pending.isEmpty()) {
+                int node = pending.pop();
+                int distance = distance(query, words[node]);
+                if (distance <= maxDistance) {
+                    matches.add(new int[] {distance, node});
+                }
+                for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                    if (Math.abs(edge[child] - distance) <= maxDistance) {
+                        pending.push(child);
+                    }
+                }
+            }
+            // Closest first, ties in the order constants are declared
+            matches.sort(Comparator.<int[]>comparingInt(match -> match[0]).thenComparingInt(match -> match[1]));
+            Set<E> suggestions = new LinkedHashSet<>();
+            for (int[] match : matches) {
+                suggestions.add(names.get(words[match[1]]));
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+            return List.copyOf(suggestions);
+        }
+
+    }
+
+    // Levenshtein distance with two rows
+    private static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+}
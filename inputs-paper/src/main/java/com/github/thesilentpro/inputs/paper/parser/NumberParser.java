@@ -1,12 +1,14 @@
 package com.github.thesilentpro.inputs.paper.parser;
 
+import com.github.thesilentpro.inputs.api.ParseResult;
+import com.github.thesilentpro.inputs.paper.ChatInput;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.NumberFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -19,11 +21,25 @@ import java.util.Optional;
  * and returns an {@link Optional} containing the parsed value if successful, or an empty {@link Optional}
  * if the component is null or the text cannot be parsed.
  * </p>
+ * The {@code scan} methods parse a {@link CharSequence} into a {@link ParseResult} without allocating and without
+ * throwing on malformed input, which is the common case when players keep chatting while a numeric input is pending.
  *
  * @author TheSilentPro (Silent)
  */
 public final class NumberParser {
 
+    // Powers of ten that are exactly representable, multiplying or dividing by them rounds only once
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private static final ThreadLocal<CachedFormat> FORMAT = new ThreadLocal<>();
+
     // Private constructor to prevent instantiation
     private NumberParser() {
         throw new UnsupportedOperationException("Utility class.");
@@ -40,96 +56,343 @@ public final class NumberParser {
     @NotNull
     public static Optional<Number> parse(@Nullable Component component) {
         String text = extract(component);
-        if (text == null) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.ofNullable(NumberFormat.getInstance().parse(text));
-        } catch (ParseException e) {
-            return Optional.empty();
-        }
+        return text == null ? Optional.empty() : Optional.ofNullable(parseNumber(text));
     }
 
     @NotNull
     public static Optional<Integer> parseInteger(@Nullable Component component) {
-        String text = extract(component);
-        if (text == null) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(Integer.parseInt(text));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        ParseResult result = new ParseResult();
+        return parseInteger(component, result) ? Optional.of(result.getInt()) : Optional.empty();
     }
 
     @NotNull
     public static Optional<Long> parseLong(@Nullable Component component) {
-        String text = extract(component);
-        if (text == null) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(Long.parseLong(text));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        ParseResult result = new ParseResult();
+        return parseLong(component, result) ? Optional.of(result.getLong()) : Optional.empty();
     }
 
     @NotNull
     public static Optional<Float> parseFloat(@Nullable Component component) {
-        String text = extract(component);
+        ParseResult result = new ParseResult();
+        return parseFloat(component, result) ? Optional.of((float) result.getDouble()) : Optional.empty();
+    }
+
+    @NotNull
+    public static Optional<Double> parseDouble(@Nullable Component component) {
+        ParseResult result = new ParseResult();
+        return parseDouble(component, result) ? Optional.of(result.getDouble()) : Optional.empty();
+    }
+
+    @NotNull
+    public static Optional<Byte> parseByte(@Nullable Component component) {
+        ParseResult result = new ParseResult();
+        return parseByte(component, result) ? Optional.of((byte) result.getInt()) : Optional.empty();
+    }
+
+    // ParseResult variants, registered as ResultParsers by default
+
+    public static boolean parse(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
         if (text == null) {
-            return Optional.empty();
+            return false;
         }
+        Number number = parseNumber(text);
+        return number != null && result.set(number);
+    }
+
+    public static boolean parseInteger(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
+        return text != null && scanInt(text, result);
+    }
+
+    public static boolean parseLong(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
+        return text != null && scanLong(text, result);
+    }
+
+    public static boolean parseFloat(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
+        return text != null && scanFloat(text, result);
+    }
+
+    public static boolean parseDouble(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
+        return text != null && scanDouble(text, result);
+    }
+
+    public static boolean parseByte(@Nullable Component component, @NotNull ParseResult result) {
+        String text = component == null ? null : ChatInput.of(component, result).text();
+        return text != null && scanByte(text, result);
+    }
 
-        try {
-            return Optional.of(Float.parseFloat(text));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
+    // Scanners
+
+    /**
+     * Scans a decimal {@code int}, accepting the same input as {@link Integer#parseInt(String)}.
+     *
+     * @param text The text to scan.
+     * @param result The result to write the value into.
+     * @return {@code true} if the whole text is a valid {@code int}.
+     */
+    public static boolean scanInt(@NotNull CharSequence text, @NotNull ParseResult result) {
+        return scanInteger(text, Integer.MIN_VALUE, Integer.MAX_VALUE, result) && result.setInt((int) result.getLong());
+    }
+
+    /**
+     * Scans a decimal {@code long}, accepting the same input as {@link Long#parseLong(String)}.
+     *
+     * @param text The text to scan.
+     * @param result The result to write the value into.
+     * @return {@code true} if the whole text is a valid {@code long}.
+     */
+    public static boolean scanLong(@NotNull CharSequence text, @NotNull ParseResult result) {
+        return scanInteger(text, Long.MIN_VALUE, Long.MAX_VALUE, result);
+    }
+
+    /**
+     * Scans a decimal {@code byte}, accepting the same input as {@link Byte#parseByte(String)}.
+     *
+     * @param text The text to scan.
+     * @param result The result to write the value into.
+     * @return {@code true} if the whole text is a valid {@code byte}.
+     */
+    public static boolean scanByte(@NotNull CharSequence text, @NotNull ParseResult result) {
+        return scanInteger(text, Byte.MIN_VALUE, Byte.MAX_VALUE, result) && result.setByte((byte) result.getLong());
+    }
+
+    /**
+     * Scans a decimal {@code double}: an optional sign, digits with an optional fraction and exponent,
+     * an optional {@code d}/{@code f} suffix, or {@code NaN} and {@code Infinity}.
+     * Hexadecimal floating point literals are not accepted.
+     *
+     * @param text The text to scan.
+     * @param result The result to write the value into.
+     * @return {@code true} if the whole text is a valid {@code double}.
+     */
+    public static boolean scanDouble(@NotNull CharSequence text, @NotNull ParseResult result) {
+        return scanDecimal(text, false, result);
+    }
+
+    /**
+     * Scans a decimal {@code float}, accepting the same forms as {@link #scanDouble(CharSequence, ParseResult)}.
+     *
+     * @param text The text to scan.
+     * @param result The result to write the value into.
+     * @return {@code true} if the whole text is a valid {@code float}.
+     */
+    public static boolean scanFloat(@NotNull CharSequence text, @NotNull ParseResult result) {
+        return scanDecimal(text, true, result);
+    }
+
+    // Accumulates negatively like Long#parseLong, so the minimum value does not overflow
+    private static boolean scanInteger(CharSequence text, long min, long max, ParseResult result) {
+        int length = text.length();
+        if (length == 0) {
+            return false;
         }
+
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == length) {
+                return false;
+            }
+        }
+
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = digit(text.charAt(i));
+            if (digit < 0 || value < multiplyLimit) {
+                return false;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return false;
+            }
+            value -= digit;
+        }
+        return result.setLong(negative ? value : -value);
     }
 
-    @NotNull
-    public static Optional<Double> parseDouble(@Nullable Component component) {
-        String text = extract(component);
-        if (text == null) {
-            return Optional.empty();
+    private static boolean scanDecimal(CharSequence text, boolean single, ParseResult result) {
+        int length = text.length();
+        if (length > 0) {
+            char last = text.charAt(length - 1);
+            if (last == 'd' || last == 'D' || last == 'f' || last == 'F') {
+                length--;
+            }
+        }
+        if (length == 0) {
+            return false;
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i < length && (text.charAt(i) == 'N' || text.charAt(i) == 'I')) {
+            // Suffixes only follow digits
+            if (length != text.length()) {
+                return false;
+            }
+            if (matches(text, i, "Infinity")) {
+                return setDecimal(result, single, negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+            }
+            return matches(text, i, "NaN") && setDecimal(result, single, Double.NaN);
         }
 
-        try {
-            return Optional.of(Double.parseDouble(text));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean anyDigit = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        mantissaDigits++;
+                    }
+                    if (point) {
+                        exponent--;
+                    }
+                } else {
+                    truncated |= c != '0';
+                    if (!point) {
+                        exponent++;
+                    }
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit) {
+            return false;
         }
+
+        if (i < length) {
+            char c = text.charAt(i);
+            if (c != 'e' && c != 'E' || ++i == length) {
+                return false;
+            }
+            boolean negativeExponent = false;
+            c = text.charAt(i);
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                if (++i == length) {
+                    return false;
+                }
+            }
+            int explicit = 0;
+            for (; i < length; i++) {
+                c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                // Anything this large is already zero or infinite, keep it from overflowing
+                if (explicit < 100_000) {
+                    explicit = explicit * 10 + (c - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+
+        if (!truncated) {
+            if (single && mantissa <= MAX_EXACT_FLOAT && exponent >= -10 && exponent <= 10) {
+                float value = exponent >= 0 ? mantissa * FLOAT_POWERS[exponent] : mantissa / FLOAT_POWERS[-exponent];
+                return result.setFloat(negative ? -value : value);
+            }
+            if (!single && mantissa <= MAX_EXACT_DOUBLE && exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * DOUBLE_POWERS[exponent] : mantissa / DOUBLE_POWERS[-exponent];
+                return result.setDouble(negative ? -value : value);
+            }
+        }
+
+        // The text is known to be well-formed here, so the JDK parser handles correct rounding without throwing
+        String literal = text.toString();
+        return single ? result.setFloat(Float.parseFloat(literal)) : result.setDouble(Double.parseDouble(literal));
     }
 
-    @NotNull
-    public static Optional<Byte> parseByte(@Nullable Component component) {
-        String text = extract(component);
-        if (text == null) {
-            return Optional.empty();
+    private static boolean setDecimal(ParseResult result, boolean single, double value) {
+        return single ? result.setFloat((float) value) : result.setDouble(value);
+    }
+
+    private static boolean matches(CharSequence text, int offset, String expected) {
+        if (text.length() - offset != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(offset + i) != expected.charAt(i)) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        try {
-            return Optional.of(Byte.parseByte(text));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
         }
+        // Integer#parseInt accepts digits of every script
+        return c < 128 ? -1 : Character.digit(c, 10);
+    }
+
+    @Nullable
+    private static Number parseNumber(String text) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        CachedFormat cached = FORMAT.get();
+        if (cached == null || !cached.locale.equals(locale)) {
+            cached = new CachedFormat(locale);
+            FORMAT.set(cached);
+        }
+        return cached.parse(text);
     }
 
     /**
-     * Extracts plain string text from a {@link Component}, or returns null if the component is null.
+     * Extracts trimmed plain text from a {@link Component}, or returns null if the component is null.
      */
     @Nullable
     private static String extract(@Nullable Component component) {
         if (component == null) {
             return null;
         }
-        return PlainTextComponentSerializer.plainText().serialize(component).trim();
+        return ChatInput.of(component).text();
+    }
+
+    // NumberFormat is not thread-safe, so each thread keeps its own instead of cloning one for every message
+    private static final class CachedFormat {
+
+        private final Locale locale;
+        private final NumberFormat format;
+        private final ParsePosition position;
+
+        private CachedFormat(Locale locale) {
+            this.locale = locale;
+            this.format = NumberFormat.getNumberInstance(locale);
+            this.position = new ParsePosition(0);
+        }
+
+        // Same outcome as NumberFormat#parse(String), without the ParseException on failure
+        @Nullable
+        private Number parse(String text) {
+            position.setIndex(0);
+            position.setErrorIndex(-1);
+            Number number = format.parse(text, position);
+            return position.getIndex() == 0 ? null : number;
+        }
+
     }
 
 }
@@ -2,66 +2,51 @@ package com.github.thesilentpro.inputs.paper.parser;
 
 import com.github.thesilentpro.inputs.api.InputParser;
 import com.github.thesilentpro.inputs.api.InputParserRegistry;
+import com.github.thesilentpro.inputs.api.ResultParser;
+import com.github.thesilentpro.inputs.api.SnapshotInputParserRegistry;
+import com.github.thesilentpro.inputs.paper.ChatInput;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
-public class PaperInputParserRegistry implements InputParserRegistry<Component> {
+/**
+ * The {@link SnapshotInputParserRegistry} used for chat inputs, with parsers for common types available through {@link #registerDefaults()}.
+ * Enums and records without a registered parser are parsed by an {@link EnumParser} or {@link RecordParser}.
+ */
+public class PaperInputParserRegistry extends SnapshotInputParserRegistry<Component> {
 
-    public static final PaperInputParserRegistry INSTANCE = new PaperInputParserRegistry(new ConcurrentHashMap<>()).registerDefaults();
+    public static final PaperInputParserRegistry INSTANCE = new PaperInputParserRegistry().registerDefaults();
 
-    private final Map<Class<?>, List<InputParser<Component,?>>> parsers;
-
-    public PaperInputParserRegistry(Map<Class<?>, List<InputParser<Component,?>>> map) {
-        this.parsers = map;
-    }
-
-    @NotNull
-    public <T> Optional<InputParser<Component,T>> find(@NotNull Class<T> type) {
-        List<InputParser<Component,?>> parsers = this.parsers.get(type);
-        if (parsers == null || parsers.isEmpty()) {
-            return Optional.empty();
-        }
-
-        //noinspection unchecked,SequencedCollectionMethodCanBeUsed
-        return Optional.of((InputParser<Component,T>) parsers.get(0));
-    }
-
-    @NotNull
-    public <T> List<InputParser<Component,T>> findAll(@NotNull Class<T> type) {
-        //noinspection unchecked
-        List<InputParser<Component,T>> parsers = (List<InputParser<Component,T>>) (List<?>) this.parsers.get(type);
-
-        if (parsers == null || parsers.isEmpty()) {
-            return List.of();
-        }
-
-        return Collections.unmodifiableList(parsers);
+    public PaperInputParserRegistry() {
     }
 
     /**
-     * Register a new {@link InputParser} with the class type.
+     * Creates a registry holding the parsers of a map.
      *
-     * @param type The class type for the parser
-     * @param parser The parser
-     * @param <T> The type
+     * @param map The parsers to register, in order. The map is copied, later changes to it are not seen by the registry.
+     * @deprecated Parsers are kept in immutable snapshots now, use {@link #PaperInputParserRegistry()} and {@link #register(Class, InputParser)}.
      */
-    public <T> void register(@NotNull Class<T> type, @NotNull InputParser<Component,T> parser) {
-        List<InputParser<Component,?>> list = this.parsers.computeIfAbsent(type, t -> new ArrayList<>());
-        if (!list.contains(parser)) {
-            list.add(parser);
-        }
+    @Deprecated
+    public PaperInputParserRegistry(Map<Class<?>, List<InputParser<Component,?>>> map) {
+        super(map);
     }
 
-    public <T> void update(@NotNull Class<T> type, @NotNull InputParser<Component,T> parser) {
-        List<InputParser<Component,?>> list = this.parsers.computeIfAbsent(type, t -> new ArrayList<>());
-        if (list.contains(parser)) {
-            list.set(list.indexOf(parser), parser);
+    @Nullable
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected InputParser<Component,?> derive(@NotNull Class<?> type) {
+        if (type.isEnum()) {
+            return EnumParser.of((Class) type);
+        }
+        if (type.isRecord()) {
+            return RecordParser.of(this, (Class) type);
         }
+        return null;
     }
 
     /**
@@ -71,33 +56,32 @@ public class PaperInputParserRegistry implements InputParserRegistry<Component>
      * @return The {@link InputParserRegistry} instance with the default parsers registered.
      */
     public PaperInputParserRegistry registerDefaults() {
-        register(Component.class, Optional::of);
-        register(String.class, s -> Optional.of(PlainTextComponentSerializer.plainText().serialize(s).trim()));
-        register(Number.class, NumberParser::parse);
-        register(Integer.class, NumberParser::parseInteger);
-        register(Long.class, NumberParser::parseLong);
-        register(Double.class, NumberParser::parseDouble);
-        register(Float.class, NumberParser::parseFloat);
-        register(Byte.class, NumberParser::parseByte);
-        register(Boolean.class, s -> {
-            String text = PlainTextComponentSerializer.plainText().serialize(s);
-            String trimmed = text.trim();
+        register(Component.class, ResultParser.of((s, result) -> result.set(s)));
+        register(String.class, ResultParser.of((s, result) -> result.set(ChatInput.of(s, result).text())));
+        register(Number.class, ResultParser.of(NumberParser::parse));
+        register(Integer.class, ResultParser.of(NumberParser::parseInteger));
+        register(Long.class, ResultParser.of(NumberParser::parseLong));
+        register(Double.class, ResultParser.of(NumberParser::parseDouble));
+        register(Float.class, ResultParser.of(NumberParser::parseFloat));
+        register(Byte.class, ResultParser.of(NumberParser::parseByte));
+        register(Boolean.class, ResultParser.of((s, result) -> {
+            String trimmed = ChatInput.of(s, result).text();
             if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("yes") || trimmed.equalsIgnoreCase("on")) {
-                return Optional.of(true);
+                return result.setBoolean(true);
             } else if (trimmed.equalsIgnoreCase("false") || trimmed.equalsIgnoreCase("No") || trimmed.equalsIgnoreCase("off")) {
-                return Optional.of(false);
+                return result.setBoolean(false);
             } else {
-                return Optional.empty();
+                return false;
             }
-        });
-        register(Duration.class, DurationParser::parseSafely);
-        register(UUID.class, s -> {
+        }));
+        register(Duration.class, ResultParser.of(DurationParser::parse));
+        register(UUID.class, ResultParser.of((s, result) -> {
             try {
-                return Optional.of(UUID.fromString(PlainTextComponentSerializer.plainText().serialize(s).trim()));
+                return result.set(UUID.fromString(ChatInput.of(s, result).text()));
             } catch (IllegalArgumentException e) {
-                return Optional.empty();
+                return false;
             }
-        });
+        }));
         return this;
     }
 
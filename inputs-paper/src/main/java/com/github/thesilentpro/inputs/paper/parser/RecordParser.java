@@ -0,0 +1,123 @@
+package com.github.thesilentpro.inputs.paper.parser;
+
+import com.github.thesilentpro.inputs.api.InputParser;
+import com.github.thesilentpro.inputs.api.InputParserRegistry;
+import com.github.thesilentpro.inputs.api.ParseResult;
+import com.github.thesilentpro.inputs.api.ResultParser;
+import com.github.thesilentpro.inputs.paper.ChatInput;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Optional;
+
+/**
+ * Parses a record from whitespace separated words, one for each of its components in declaration order.
+ * The last component receives the rest of the text, so a record ending in a {@link String} can take a whole sentence.
+ * <p>
+ * Every word is parsed with the parser the registry finds for its component type when the input arrives,
+ * so components may themselves be records or enums. An exception thrown by the canonical constructor,
+ * e.g. from validation in a compact constructor, is treated as a mismatch.
+ * </p>
+ *
+ * @param <R> The record type
+ * @author TheSilentPro (Silent)
+ */
+public final class RecordParser<R extends Record> implements ResultParser<Component,R> {
+
+    private final InputParserRegistry<Component> registry;
+    private final Class<?>[] componentTypes;
+    private final Constructor<R> constructor;
+
+    private RecordParser(InputParserRegistry<Component> registry, Class<?>[] componentTypes, Constructor<R> constructor) {
+        this.registry = registry;
+        this.componentTypes = componentTypes;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Creates a parser for a record.
+     *
+     * @param registry The registry to find the parsers of the components in.
+     * @param type The record type.
+     * @return The parser, or {@code null} if the record has no components or its canonical constructor is not accessible.
+     */
+    @Nullable
+    public static <R extends Record> RecordParser<R> of(@NotNull InputParserRegistry<Component> registry, @NotNull Class<R> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (components.length == 0) {
+            return null;
+        }
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        Class<?>[] componentTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+            // Parsers are registered for the wrapper types
+            componentTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        }
+        try {
+            Constructor<R> constructor = type.getDeclaredConstructor(parameterTypes);
+            return constructor.trySetAccessible() ? new RecordParser<>(registry, componentTypes, constructor) : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean parse(@NotNull Component input, @NotNull ParseResult result) {
+        String text = ChatInput.of(input, result).text();
+        Object[] values = new Object[componentTypes.length];
+        ParseResult component = new ParseResult();
+        int start = 0;
+        for (int i = 0; i < componentTypes.length; i++) {
+            if (start >= text.length()) {
+                return false;
+            }
+            int end = i == componentTypes.length - 1 ? text.length() : wordEnd(text, start);
+            if (!parseComponent(componentTypes[i], text.substring(start, end), component)) {
+                return false;
+            }
+            values[i] = component.get();
+            component.reset();
+            start = wordStart(text, end);
+        }
+        try {
+            return result.set(constructor.newInstance(values));
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean parseComponent(Class<?> type, String word, ParseResult result) {
+        Optional<? extends InputParser<Component,?>> parser = registry.find(type);
+        if (parser.isEmpty()) {
+            return false;
+        }
+        Component input = Component.text(word);
+        if (parser.get() instanceof ResultParser<Component,?> resultParser) {
+            return resultParser.parse(input, result);
+        }
+        Optional<?> parsed = parser.get().parse(input);
+        return parsed.isPresent() && result.set(parsed.get());
+    }
+
+    private static int wordEnd(String text, int start) {
+        int i = start;
+        while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int wordStart(String text, int end) {
+        int i = end;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.github.thesilentpro.inputs.paper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactInputStoreTest {
+
+    @Test
+    void keepsSnapshotsUntilTheyAreRemoved() {
+        CompactInputStore store = new CompactInputStore(CompactInputStore.MIN_CAPACITY);
+        UUID id = UUID.randomUUID();
+        PendingInput first = pending(id);
+        PendingInput second = pending(id);
+
+        assertTrue(store.putIfAbsent(id, first));
+        assertFalse(store.putIfAbsent(id, second));
+        assertSame(first, store.get(id));
+
+        assertFalse(store.replace(id, second, first));
+        assertTrue(store.replace(id, first, second));
+        assertSame(second, store.get(id));
+
+        assertFalse(store.remove(id, first));
+        assertTrue(store.remove(id, second));
+        assertNull(store.get(id));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void deletingFromAProbeSequenceKeepsLaterKeysReachable() {
+        CompactInputStore store = new CompactInputStore(CompactInputStore.MIN_CAPACITY);
+        // Equal halves hash alike, so every key lands in the same probe sequence
+        List<UUID> ids = new ArrayList<>();
+        Map<UUID, PendingInput> expected = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            UUID id = new UUID(i, i);
+            ids.add(id);
+            expected.put(id, pending(id));
+            assertTrue(store.putIfAbsent(id, expected.get(id)));
+        }
+
+        for (int index : new int[]{3, 0, 6, 1}) {
+            UUID id = ids.get(index);
+            assertTrue(store.remove(id, expected.remove(id)));
+            assertNull(store.get(id));
+            expected.forEach((key, value) -> assertSame(value, store.get(key), key.toString()));
+        }
+        assertEquals(expected.size(), store.size());
+    }
+
+    @Test
+    void matchesAMapUnderRandomChanges() {
+        CompactInputStore store = new CompactInputStore(CompactInputStore.MIN_CAPACITY);
+        Map<UUID, PendingInput> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+        UUID[] ids = new UUID[512];
+        for (int i = 0; i < ids.length; i++) {
+            // Few distinct halves, so probe sequences overlap and wrap around the table
+            ids[i] = new UUID(random.nextInt(64), random.nextLong());
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = ids[random.nextInt(ids.length)];
+            PendingInput current = expected.get(id);
+            if (current == null) {
+                PendingInput pending = pending(id);
+                assertTrue(store.putIfAbsent(id, pending));
+                expected.put(id, pending);
+            } else if (random.nextBoolean()) {
+                assertTrue(store.remove(id, current));
+                expected.remove(id);
+            } else {
+                PendingInput pending = pending(id);
+                assertTrue(store.replace(id, current, pending));
+                expected.put(id, pending);
+            }
+            assertEquals(expected.size(), store.size());
+        }
+
+        for (UUID id : ids) {
+            assertSame(expected.get(id), store.get(id));
+        }
+        List<PlayerInputs> visited = new ArrayList<>();
+        store.forEach(visited::add);
+        assertEquals(expected.size(), visited.size());
+        assertTrue(expected.values().containsAll(visited));
+    }
+
+    @Test
+    void growsAndShrinksBackToEmpty() {
+        CompactInputStore store = new CompactInputStore(CompactInputStore.MIN_CAPACITY);
+        List<UUID> ids = new ArrayList<>();
+        List<PendingInput> snapshots = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            PendingInput pending = pending(id);
+            ids.add(id);
+            snapshots.add(pending);
+            assertTrue(store.putIfAbsent(id, pending));
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            assertTrue(store.remove(ids.get(i), snapshots.get(i)));
+        }
+
+        assertEquals(0, store.size());
+        for (UUID id : ids) {
+            assertNull(store.get(id));
+        }
+    }
+
+    @Test
+    void rejectsCapacitiesItCannotHold() {
+        assertThrows(IllegalArgumentException.class, () -> PlayerInputStore.compact(-1));
+        assertThrows(IllegalArgumentException.class, () -> PlayerInputStore.compact(CompactInputStore.MAX_CAPACITY / 2 + 1));
+        // Twice as many slots would need a key array longer than an array can be
+        assertThrows(IllegalArgumentException.class, () -> PlayerInputStore.compact(1 << 29));
+        assertThrows(IllegalArgumentException.class, () -> PlayerInputStore.compact(Integer.MAX_VALUE));
+    }
+
+    private static PendingInput pending(UUID id) {
+        return new PendingInput(null, id, PaperInput.awaitString().compile());
+    }
+
+}
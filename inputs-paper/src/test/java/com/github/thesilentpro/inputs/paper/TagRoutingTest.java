@@ -0,0 +1,52 @@
+package com.github.thesilentpro.inputs.paper;
+
+import com.github.thesilentpro.inputs.paper.parser.PaperInputParserRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagRoutingTest {
+
+    private record Item(String name) {
+    }
+
+    @Test
+    void parsersReadTheTextWithoutThePrefix() {
+        List<String> read = new ArrayList<>();
+        PaperInputParserRegistry parsers = new PaperInputParserRegistry();
+        parsers.register(Item.class, component -> {
+            String text = PlainTextComponentSerializer.plainText().serialize(component);
+            read.add(text);
+            return text.isEmpty() ? Optional.empty() : Optional.of(new Item(text));
+        });
+        PaperInputRegistry registry = PaperInputRegistry.compact(parsers).tagRouting(true);
+        UUID id = UUID.randomUUID();
+        List<Item> received = new ArrayList<>();
+        PaperInput.await(Item.class).tag("shop").then((Item value) -> received.add(value)).register(id, registry);
+
+        registry.process(id, Component.text("shop: diamond sword"));
+
+        assertEquals(List.of("diamond sword"), read);
+        assertEquals(List.of(new Item("diamond sword")), received);
+    }
+
+    @Test
+    void untaggedMessagesAreParsedWhole() {
+        PaperInputRegistry registry = PaperInputRegistry.compact(PaperInputParserRegistry.INSTANCE).tagRouting(true);
+        UUID id = UUID.randomUUID();
+        List<String> received = new ArrayList<>();
+        PaperInput.awaitString().then((String value) -> received.add(value)).register(id, registry);
+
+        registry.process(id, Component.text("hello: there"));
+
+        assertEquals(List.of("hello: there"), received);
+    }
+
+}
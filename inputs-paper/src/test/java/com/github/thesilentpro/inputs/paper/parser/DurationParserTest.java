@@ -0,0 +1,78 @@
+package com.github.thesilentpro.inputs.paper.parser;
+
+import com.github.thesilentpro.inputs.api.ParseResult;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationParserTest {
+
+    @Test
+    void parsesUnitsSeparatedByWhitespace() {
+        assertEquals(Duration.ofDays(1).plusHours(2).plusMinutes(30), DurationParser.parse(Component.text("1d 2h 30m")));
+        assertEquals(Duration.ofSeconds(90), DurationParser.parse(Component.text("  1m\t30s ")));
+        assertEquals(Duration.ofMillis(1500), DurationParser.parse(Component.text("1s 500ms")));
+    }
+
+    @Test
+    void reportsInvalidParts() {
+        List<String> units = new ArrayList<>();
+        List<String> numbers = new ArrayList<>();
+
+        Duration duration = DurationParser.parse(Component.text("5x m 3s"), units::add, numbers::add);
+
+        assertEquals(Duration.ofSeconds(3), duration);
+        assertEquals(List.of("x"), units);
+        assertEquals(List.of("m"), numbers);
+    }
+
+    @Test
+    void rejectsEmptyAndZeroDurations() {
+        ParseResult result = new ParseResult();
+
+        assertFalse(DurationParser.parse(Component.text(""), result));
+        assertFalse(DurationParser.parse(Component.text("0s"), result));
+        assertFalse(DurationParser.parse(Component.text("soon"), result));
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void formatsTheLargestUnitsFirst() {
+        assertEquals("1d 2h 30m", DurationParser.format(Duration.ofDays(1).plusHours(2).plusMinutes(30)));
+        assertEquals("1s 500ms", DurationParser.format(Duration.ofMillis(1500)));
+        assertEquals("1m 1ns", DurationParser.format(Duration.ofMinutes(1).plusNanos(1)));
+        assertEquals("0s", DurationParser.format(Duration.ZERO));
+    }
+
+    @Test
+    void formattedDurationsParseBack() {
+        List<Duration> durations = new ArrayList<>(List.of(
+                Duration.ofNanos(1),
+                Duration.ofSeconds(59, 999_999_999),
+                Duration.ofDays(1),
+                Duration.ofDays(Integer.MAX_VALUE).plusSeconds(86_399).plusNanos(999_999_999)
+        ));
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            durations.add(Duration.ofSeconds(random.nextLong(1L << 40), random.nextInt(1_000_000_000)));
+        }
+
+        for (Duration duration : durations) {
+            String text = DurationParser.format(duration);
+            assertEquals(duration, DurationParser.parse(Component.text(text)), text);
+        }
+    }
+
+    @Test
+    void refusesToFormatNegativeDurations() {
+        assertThrows(IllegalArgumentException.class, () -> DurationParser.format(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> DurationParser.format(Duration.ofSeconds(Long.MIN_VALUE)));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.thesilentpro.inputs.paper.parser;
+
+import com.github.thesilentpro.inputs.api.ParseResult;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumParserTest {
+
+    @Test
+    void findsEveryConstantOfALargeEnum() {
+        // Well over a hundred constants, so buckets collide and need displacing
+        EnumParser<Character.UnicodeScript> parser = new EnumParser<>(Character.UnicodeScript.class);
+
+        for (Character.UnicodeScript script : Character.UnicodeScript.values()) {
+            String name = script.name();
+            assertSame(script, parser.lookup(name), name);
+            assertSame(script, parser.lookup(name.toLowerCase(Locale.ROOT)), name);
+            assertSame(script, parser.lookup(name.replace('_', ' ')), name);
+            assertSame(script, parser.lookup(name.replace('_', '-')), name);
+        }
+    }
+
+    @Test
+    void findsNothingForOtherNames() {
+        EnumParser<Character.UnicodeScript> parser = new EnumParser<>(Character.UnicodeScript.class);
+
+        assertNull(parser.lookup(""));
+        assertNull(parser.lookup("LATI"));
+        assertNull(parser.lookup("LATINN"));
+        assertNull(parser.lookup("OLD  PERSIAN"));
+        for (int i = 0; i < 10_000; i++) {
+            assertNull(parser.lookup("X" + i));
+        }
+    }
+
+    @Test
+    void parsesTrimmedMessages() {
+        EnumParser<ChronoUnit> parser = EnumParser.of(ChronoUnit.class);
+        ParseResult result = new ParseResult();
+
+        assertTrue(parser.parse(Component.text("  half days "), result));
+        assertSame(ChronoUnit.HALF_DAYS, result.get());
+        assertFalse(parser.parse(Component.text("fortnights"), result.reset()));
+        assertSame(parser, EnumParser.of(ChronoUnit.class));
+    }
+
+    @Test
+    void acceptsAliases() {
+        EnumParser<DayOfWeek> parser = EnumParser.of(DayOfWeek.class)
+                .withAliases(Map.of("mon", DayOfWeek.MONDAY, "Tue", DayOfWeek.TUESDAY))
+                .withAliases(Map.of("sat", DayOfWeek.SATURDAY));
+
+        assertSame(DayOfWeek.MONDAY, parser.lookup("MON"));
+        assertSame(DayOfWeek.TUESDAY, parser.lookup("tue"));
+        assertSame(DayOfWeek.SATURDAY, parser.lookup("Sat"));
+        assertSame(DayOfWeek.SUNDAY, parser.lookup("sunday"));
+        assertNull(EnumParser.of(DayOfWeek.class).lookup("mon"));
+    }
+
+    @Test
+    void rejectsAliasesCollidingWithOtherNames() {
+        EnumParser<DayOfWeek> parser = EnumParser.of(DayOfWeek.class).withAliases(Map.of("mon", DayOfWeek.MONDAY));
+
+        assertThrows(IllegalArgumentException.class, () -> parser.withAliases(Map.of("Sunday", DayOfWeek.MONDAY)));
+        assertThrows(IllegalArgumentException.class, () -> parser.withAliases(Map.of("MON", DayOfWeek.TUESDAY)));
+        // Naming the same constant again is no collision
+        assertSame(DayOfWeek.MONDAY, parser.withAliases(Map.of("monday", DayOfWeek.MONDAY, "Mon", DayOfWeek.MONDAY)).lookup("mon"));
+    }
+
+    @Test
+    void suggestsTheClosestNames() {
+        EnumParser<DayOfWeek> parser = EnumParser.of(DayOfWeek.class);
+
+        assertEquals(List.of(DayOfWeek.MONDAY), parser.suggest("mondya", 3));
+        assertEquals(DayOfWeek.SUNDAY, parser.suggest("sundai", 1).get(0));
+        assertTrue(parser.suggest("xylophone", 3).isEmpty());
+    }
+
+}